@@ -0,0 +1,61 @@
+package org.example.chesspressoserver.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleich: blockierende Nachrichten-Handler (simulierter DB-Call per Sleep) auf einem festen Pool,
+ * wie ihn Spring standardmäßig für clientInboundChannel nutzt (2 * Kerne), gegen virtuelle Threads.
+ * Ergebnis in Handlern pro Sekunde.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingHandlerBenchmark {
+
+    private static final int HANDLERS_PER_OP = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String executorType;
+
+    @Param({"5"})
+    public int blockMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = executorType.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDLERS_PER_OP)
+    public void blockingHandlers() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(HANDLERS_PER_OP);
+        for (int i = 0; i < HANDLERS_PER_OP; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(blockMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
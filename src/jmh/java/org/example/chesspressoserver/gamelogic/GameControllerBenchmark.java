@@ -0,0 +1,72 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.Move;
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks für die Hot Paths des GameControllers.
+ * Allokationsrate über "-prof gc" (Standard im Maven-Profil jmh).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameControllerBenchmark {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // Weiß ist matt (Narrenmatt)
+    private static final String FOOLS_MATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+
+    private GameController kiwipete;
+    private GameController mated;
+    private Position queen;
+    private Position matedKing;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        kiwipete = Fen.parse(KIWIPETE);
+        mated = Fen.parse(FOOLS_MATE);
+        queen = Position.of("F3");
+        matedKing = mated.getBoard().getKingPosition(TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public List<Position> getMovesForRequest() {
+        return kiwipete.getMovesForRequest(queen);
+    }
+
+    @Benchmark
+    public List<String> getMovesForRequestAsString() {
+        return kiwipete.getMovesForRequestAsString(queen);
+    }
+
+    // applyMove inkl. Masken-Update, danach zurücknehmen damit die Stellung gleich bleibt
+    @Benchmark
+    public Move applyMove() {
+        Move move = kiwipete.applyMove(Position.of("E2"), Position.of("A6"), null);
+        kiwipete.unmakeMove();
+        return move;
+    }
+
+    @Benchmark
+    public void updateAttackers() {
+        kiwipete.updateAttackers();
+    }
+
+    @Benchmark
+    public boolean isCheckMate() {
+        return mated.isCheckMate(matedKing, TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isStalemate() {
+        return kiwipete.isStalemate(TeamColor.WHITE);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.chesspressoserver.gamelogic;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Kommandozeile für {@link Perft}: Knoten und Durchsatz je Tiefe 1..N.
+ * Aufruf nach {@code ./mvnw -Pjmh test-compile}:
+ * {@code java -cp target/classes:target/test-classes org.example.chesspressoserver.gamelogic.PerftMain <tiefe> [fen]}
+ */
+public final class PerftMain {
+
+    private PerftMain() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Fen.START_POSITION;
+
+        Perft perft = new Perft(Fen.parse(fen), depth);
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes = perft.count(d);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "depth %d: %d nodes in %.3f s (%.0f nodes/s)%n",
+                    d, nodes, seconds, seconds > 0 ? nodes / seconds : 0);
+        }
+    }
+}
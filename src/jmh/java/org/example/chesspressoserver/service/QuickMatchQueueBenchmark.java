@@ -0,0 +1,76 @@
+package org.example.chesspressoserver.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quick-Join-Burst mit 64 Threads auf eine Bedenkzeit: gebildete Paare pro Sekunde (Zähler "pairs").
+ * Zum Vergleich eine Warteschlange mit synchronized um Prüfen und Entnehmen, die korrekte Variante
+ * des früheren isEmpty()/poll() auf einer LinkedList.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class QuickMatchQueueBenchmark {
+
+    private QuickMatchQueue queue;
+    private Queue<QuickMatchQueue.Ticket> lockedQueue;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Pairs {
+        public long pairs;
+        private long nextPlayer;
+        private String prefix;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pairs = 0;
+            prefix = Thread.currentThread().getName() + "-";
+        }
+
+        String nextPlayerId() {
+            return prefix + nextPlayer++;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        queue = new QuickMatchQueue();
+        lockedQueue = new LinkedList<>();
+    }
+
+    @Benchmark
+    public QuickMatchQueue.Ticket lockFree(Pairs counter) {
+        String playerId = counter.nextPlayerId();
+        QuickMatchQueue.Ticket ticket = queue.pairOrWait(playerId, () -> new QuickMatchQueue.Ticket(playerId, playerId));
+        if (!ticket.playerId().equals(playerId)) {
+            counter.pairs++;
+        }
+        return ticket;
+    }
+
+    @Benchmark
+    public QuickMatchQueue.Ticket synchronizedQueue(Pairs counter) {
+        String playerId = counter.nextPlayerId();
+        QuickMatchQueue.Ticket ticket;
+        synchronized (lockedQueue) {
+            ticket = lockedQueue.poll();
+            if (ticket == null) {
+                ticket = new QuickMatchQueue.Ticket(playerId, playerId);
+                lockedQueue.offer(ticket);
+            }
+        }
+        if (!ticket.playerId().equals(playerId)) {
+            counter.pairs++;
+        }
+        return ticket;
+    }
+}
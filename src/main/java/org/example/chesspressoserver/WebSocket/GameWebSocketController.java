@@ -1,6 +1,7 @@
 package org.example.chesspressoserver.WebSocket;
 
 import org.example.chesspressoserver.service.OnlinePlayerService;
+import org.example.chesspressoserver.service.PresenceService;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -9,7 +10,6 @@ import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
 import java.util.Map;
-import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,11 +19,14 @@ public class GameWebSocketController {
     private static final String PLAYER_ID = "playerId";
 
     private final OnlinePlayerService onlinePlayerService;
+    private final PresenceService presenceService;
     private final SimpMessagingTemplate messagingTemplate;
     private static final Logger logger = LoggerFactory.getLogger(GameWebSocketController.class);
 
-    public GameWebSocketController(OnlinePlayerService onlinePlayerService, SimpMessagingTemplate messagingTemplate) {
+    public GameWebSocketController(OnlinePlayerService onlinePlayerService, PresenceService presenceService,
+                                   SimpMessagingTemplate messagingTemplate) {
         this.onlinePlayerService = onlinePlayerService;
+        this.presenceService = presenceService;
         this.messagingTemplate = messagingTemplate;
     }
 
@@ -59,11 +62,11 @@ public class GameWebSocketController {
         return "Player " + playerId + " connected";
     }
 
+    // Vollständiger Stand mit Version; danach reichen die Diffs auf /topic/players
     @MessageMapping("/players")
     public void getOnlinePlayers(Principal principal) {
-        Set<String> onlinePlayers = onlinePlayerService.getOnlinePlayers();
         String playerId = principal != null ? principal.getName() : ANONYMOUS;
-        messagingTemplate.convertAndSendToUser(playerId, "/queue/players", onlinePlayers);
+        messagingTemplate.convertAndSendToUser(playerId, "/queue/players", presenceService.snapshot());
     }
 
     @MessageMapping("/game/join")
@@ -95,23 +98,9 @@ public class GameWebSocketController {
         }
 
         if (playerId != null && !playerId.equals(ANONYMOUS)) {
+            // Leave-Diff geht mit dem nächsten Presence-Fenster raus
             onlinePlayerService.removePlayer(playerId);
             logger.info("App closing - Player {} removed from online list. Reason: {}", playerId, reason);
-
-            // Sofortige Aktualisierung der Online-Spieler-Liste mit Fehlerbehandlung
-            try {
-                Set<String> onlinePlayers = onlinePlayerService.getOnlinePlayers();
-                Map<String, Object> updateMessage = Map.of(
-                        "type", "players-update",
-                        "onlinePlayers", onlinePlayers,
-                        "playerCount", onlinePlayers.size()
-                );
-                messagingTemplate.convertAndSend("/topic/players", updateMessage);
-
-                logger.info("Server-Status nach App-Schließung - {} Clients online: {}", onlinePlayers.size(), onlinePlayers);
-            } catch (Exception e) {
-                logger.error("Error sending update after app closing: {}", e.getMessage());
-            }
         } else {
             logger.warn("App closing message received but no valid playerId found");
         }
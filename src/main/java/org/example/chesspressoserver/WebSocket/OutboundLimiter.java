@@ -0,0 +1,276 @@
+package org.example.chesspressoserver.WebSocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Begrenzt pro WebSocket-Session, wie viele MESSAGE-Frames (Anzahl und Bytes) zwischen Outbound-Kanal
+ * und Socket unterwegs sein dürfen. Gezählt wird ab preSend bis der Frame tatsächlich geschrieben ist
+ * (Session-Decorator unterhalb des Sendepuffers von Spring), der Puffer eines hängenden Clients ist also enthalten.
+ * <p>
+ * Über dem Limit:
+ * <ul>
+ *   <li>Presence-Updates (/topic/players, /user/queue/players): nur der neueste pro Ziel und Nachrichtentyp
+ *       ("type" im JSON) wird gemerkt und nachgeschickt, ein status-update verdrängt also keinen presence-diff;
+ *       die Diffs sind versioniert, der Client erkennt die Lücke und fordert einen Snapshot an</li>
+ *   <li>Brett-Snapshots (/topic/game/{id}/board*): ältere Stände werden durch den neuesten ersetzt</li>
+ *   <li>alles andere (Züge, Lobby): Session wird mit {@link #RESYNC} geschlossen, der Client verbindet neu
+ *       und holt das Brett über /game/board-request</li>
+ * </ul>
+ */
+@Component
+public class OutboundLimiter implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundLimiter.class);
+
+    // Close-Code aus dem Anwendungsbereich 4000-4999: Client soll neu verbinden und resynchronisieren
+    public static final CloseStatus RESYNC = new CloseStatus(4409, "slow consumer, resync required");
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYPE_KEY = "\"type\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final MessageChannel clientOutboundChannel;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final Map<String, SessionQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong presenceCoalesced = new AtomicLong();
+    private final AtomicLong boardStatesDropped = new AtomicLong();
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+
+    public OutboundLimiter(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                           @Value("${chesspresso.ws.outbound.max-messages:128}") int maxMessages,
+                           @Value("${chesspresso.ws.outbound.max-bytes:262144}") long maxBytes) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.maxMessages = Math.max(1, maxMessages);
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionQueue queue = new SessionQueue(session);
+                queues.put(session.getId(), queue);
+                super.afterConnectionEstablished(new CountingSession(session, queue));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                queues.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) return message;
+        SessionQueue queue = queues.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        if (queue == null) return message;
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        int size = payloadSize(message);
+        int pending;
+        synchronized (queue) {
+            if (queue.closing) return null;
+            if (queue.pendingMessages < maxMessages && queue.pendingBytes + size <= maxBytes) {
+                queue.sizes.add(size);
+                queue.pendingMessages++;
+                queue.pendingBytes += size;
+                return message;
+            }
+            // Über dem Limit: ersetzbare Stände zusammenfassen, sonst trennen
+            if (destination != null && isPresence(destination, headers)) {
+                queue.coalesced.put(destination + '#' + payloadType(message), message);
+                presenceCoalesced.incrementAndGet();
+                return null;
+            }
+            if (destination != null && isBoardState(destination)) {
+                queue.coalesced.put(destination, message);
+                boardStatesDropped.incrementAndGet();
+                return null;
+            }
+            queue.closing = true;
+            pending = queue.pendingMessages;
+        }
+        slowConsumerDisconnects.incrementAndGet();
+        logger.warn("Session {} kommt nicht hinterher ({} Nachrichten ausstehend), wird getrennt", queue.session.getId(), pending);
+        // Schließen nicht im Outbound-Thread: ein hängender Socket kann auch beim Close-Frame blockieren
+        Thread.ofVirtual().name("ws-close-", 0).start(() -> closeQuietly(queue.session));
+        return null;
+    }
+
+    // Zähler für Monitoring (siehe ServerInfoController)
+    public Map<String, Long> getCounters() {
+        long pendingMessages = 0;
+        long pendingBytes = 0;
+        for (SessionQueue queue : queues.values()) {
+            synchronized (queue) {
+                pendingMessages += queue.pendingMessages;
+                pendingBytes += queue.pendingBytes;
+            }
+        }
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("sessions", (long) queues.size());
+        counters.put("pendingMessages", pendingMessages);
+        counters.put("pendingBytes", pendingBytes);
+        counters.put("presenceCoalesced", presenceCoalesced.get());
+        counters.put("boardStatesDropped", boardStatesDropped.get());
+        counters.put("slowConsumerDisconnects", slowConsumerDisconnects.get());
+        return counters;
+    }
+
+    // Ein MESSAGE-Frame ist geschrieben: Konto entlasten, zusammengefasste Stände nachschicken, sobald wieder Platz ist
+    private void onWritten(SessionQueue queue) {
+        List<Message<?>> resend = null;
+        synchronized (queue) {
+            Integer size = queue.sizes.poll();
+            if (size == null) return;
+            queue.pendingMessages--;
+            queue.pendingBytes -= size;
+            if (!queue.coalesced.isEmpty() && !queue.closing && queue.pendingMessages <= maxMessages / 2) {
+                resend = new ArrayList<>(queue.coalesced.values());
+                queue.coalesced.clear();
+            }
+        }
+        if (resend != null) {
+            resend.forEach(clientOutboundChannel::send);
+        }
+    }
+
+    // User-Ziele sind hier schon aufgelöst (/user/queue/players -> /queue/players-user{sessionId}),
+    // das ursprüngliche Ziel steht im Header simpOrigDestination
+    private static boolean isPresence(String destination, MessageHeaders headers) {
+        if (destination.equals("/topic/players") || destination.startsWith("/queue/players-user")) {
+            return true;
+        }
+        Object original = headers.get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+        return original instanceof String origin && origin.endsWith("/queue/players");
+    }
+
+    private static boolean isBoardState(String destination) {
+        return destination.startsWith("/topic/game/") && destination.contains("/board");
+    }
+
+    // Wert von "type" im JSON-Payload (Jackson schreibt ohne Leerzeichen), "" wenn keiner; nur über dem Limit aufgerufen
+    private static String payloadType(Message<?> message) {
+        byte[] json = message.getPayload() instanceof byte[] bytes ? bytes
+                : message.getPayload() instanceof String text ? text.getBytes(StandardCharsets.UTF_8) : null;
+        if (json == null) return "";
+        outer:
+        for (int i = 0; i <= json.length - TYPE_KEY.length; i++) {
+            for (int j = 0; j < TYPE_KEY.length; j++) {
+                if (json[i + j] != TYPE_KEY[j]) continue outer;
+            }
+            int start = i + TYPE_KEY.length;
+            for (int end = start; end < json.length; end++) {
+                if (json[end] == '"') return new String(json, start, end - start, StandardCharsets.UTF_8);
+            }
+            return "";
+        }
+        return "";
+    }
+
+    private static int payloadSize(Message<?> message) {
+        Object payload = message.getPayload();
+        if (payload instanceof byte[] bytes) return bytes.length;
+        if (payload instanceof String text) return text.length();
+        return 0;
+    }
+
+    // Nur STOMP-MESSAGE-Frames wurden in preSend gezählt (keine Heartbeats, CONNECTED, RECEIPT, ERROR)
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            return text.getPayload().startsWith("MESSAGE\n");
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload();
+            if (payload.remaining() < MESSAGE_COMMAND.length) return false;
+            for (int i = 0; i < MESSAGE_COMMAND.length; i++) {
+                if (payload.get(payload.position() + i) != MESSAGE_COMMAND[i]) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(RESYNC);
+        } catch (IOException e) {
+            logger.debug("Session {} konnte nicht geschlossen werden", session.getId(), e);
+        }
+    }
+
+    // Konto einer Session; Zugriff nur unter synchronized(this)
+    private static final class SessionQueue {
+        private final WebSocketSession session;
+        private final ArrayDeque<Integer> sizes = new ArrayDeque<>();
+        private final Map<String, Message<?>> coalesced = new LinkedHashMap<>();
+        private int pendingMessages;
+        private long pendingBytes;
+        private boolean closing;
+
+        private SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    // Liegt unter Springs ConcurrentWebSocketSessionDecorator und sieht damit die echten Schreibvorgänge
+    private final class CountingSession extends WebSocketSessionDecorator {
+        private final SessionQueue queue;
+
+        private CountingSession(WebSocketSession session, SessionQueue queue) {
+            super(session);
+            this.queue = queue;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (isMessageFrame(message)) {
+                    onWritten(queue);
+                }
+            }
+        }
+    }
+}
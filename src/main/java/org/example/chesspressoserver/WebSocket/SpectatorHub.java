@@ -0,0 +1,410 @@
+package org.example.chesspressoserver.WebSocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
+import org.example.chesspressoserver.service.BroadcastService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Eigene Fan-out-Stufe für Zuschauer (SUBSCRIBE auf /topic/spectate/{lobbyId}), getrennt vom SimpleBroker.
+ * <p>
+ * Der Spielerpfad legt pro Zug nur einen fertig serialisierten Frame in den Ringpuffer der Partie (O(1),
+ * unabhängig von der Zuschauerzahl). Ein eigener Thread verteilt die Frames gebündelt: jeder Zuschauer bekommt
+ * pro Durchlauf höchstens eine Nachricht (JSON-Array aller neuen Frames), gleiche Bündel werden geteilt.
+ * Solange die letzte Nachricht eines Zuschauers noch nicht verarbeitet ist, bekommt er nichts Neues;
+ * fällt er dabei aus dem Ringpuffer, erhält er statt der Zwischenstände einen aktuellen Brett-Snapshot.
+ * Angenommen werden nur Abos auf laufende Partien und nur begrenzt viele pro Session.
+ */
+@Component
+public class SpectatorHub implements ExecutorChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorHub.class);
+
+    public static final String DESTINATION_PREFIX = "/topic/spectate/";
+
+    // Markiert Zuschauer-Nachrichten im Outbound-Kanal (kein Native-Header, geht nicht an den Client)
+    private static final String SPECTATOR_HEADER = "chesspresso.spectator";
+    private static final long SNAPSHOT_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MessageChannel clientOutboundChannel;
+    private final BroadcastService broadcastService;
+    private final int ringSize;
+    private final long flushIntervalMs;
+    private final int maxPerSession;
+
+    private final Map<String, GameFeed> feeds = new ConcurrentHashMap<>();
+    // sessionId -> (subscriptionId -> Zuschauer)
+    private final Map<String, Map<String, Spectator>> sessions = new ConcurrentHashMap<>();
+
+    // Setter für SpectatorSnapshotSource (entkoppelt von GameMessageController)
+    @Setter
+    private SpectatorSnapshotSource snapshotSource;
+
+    private volatile boolean running;
+    private Thread fanout;
+
+    // Beide Abhängigkeiten lazy: sie hängen an der Broker-Konfiguration, die diesen Interceptor selbst registriert
+    public SpectatorHub(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                        @Lazy BroadcastService broadcastService,
+                        @Value("${chesspresso.spectators.ring-size:64}") int ringSize,
+                        @Value("${chesspresso.spectators.flush-interval-ms:50}") long flushIntervalMs,
+                        @Value("${chesspresso.spectators.max-per-session:8}") int maxPerSession) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.broadcastService = broadcastService;
+        this.ringSize = Integer.highestOneBit(Math.max(2, ringSize - 1)) << 1; // nächste Zweierpotenz
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.maxPerSession = Math.max(1, maxPerSession);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        fanout = new Thread(this::runFanout, "spectator-fanout");
+        fanout.setDaemon(true);
+        fanout.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (fanout != null) {
+            fanout.interrupt();
+            fanout.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    // true, wenn die Partie Zuschauer hat; nur dann lohnt sich das Serialisieren für publish()
+    public boolean isWatched(String lobbyId) {
+        return feeds.containsKey(lobbyId);
+    }
+
+    public int getSpectatorCount(String lobbyId) {
+        GameFeed feed = feeds.get(lobbyId);
+        return feed == null ? 0 : feed.spectators.size();
+    }
+
+    // Zug-Frame (seq = Halbzugnummer) anhängen; wird einmal serialisiert, verteilt der Fan-out-Thread
+    public void publish(String lobbyId, int seq, Object frame) {
+        GameFeed feed = feeds.get(lobbyId);
+        if (feed == null) return;
+        byte[] bytes = broadcastService.prepare(frame).getPayload();
+        synchronized (feed) {
+            feed.append(seq, bytes);
+        }
+    }
+
+    // Antwort auf SpectatorSnapshotSource.requestSnapshot: vollständiges Brett zum Stand seq
+    public void publishSnapshot(String lobbyId, int seq, Object snapshot) {
+        GameFeed feed = feeds.get(lobbyId);
+        if (feed == null) return;
+        byte[] bytes = broadcastService.prepare(snapshot).getPayload();
+        synchronized (feed) {
+            feed.snapshot = bytes;
+            feed.snapshotSeq = seq;
+            feed.snapshotRequestedAt = 0;
+            if (feed.count > 0 && seq > feed.lastSeq) {
+                feed.count = 0; // Ring passt nicht mehr zum Snapshot
+            }
+            if (feed.count == 0) {
+                feed.lastSeq = seq;
+            }
+        }
+    }
+
+    // Partie beendet: letzter Frame (optional) geht beim nächsten Durchlauf an alle, danach wird der Feed entfernt
+    public void endGame(String lobbyId, Object finalFrame) {
+        GameFeed feed = feeds.get(lobbyId);
+        if (feed == null) return;
+        byte[] bytes = finalFrame != null ? broadcastService.prepare(finalFrame).getPayload() : null;
+        synchronized (feed) {
+            feed.finalFrame = bytes;
+            feed.ended = true;
+        }
+    }
+
+    // --- Inbound: Zuschauer an- und abmelden; Outbound: verarbeitete Zuschauer-Nachrichten ---
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == null || sessionId == null) return message;
+        switch (type) {
+            case SUBSCRIBE -> {
+                String destination = SimpMessageHeaderAccessor.getDestination(headers);
+                String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+                if (destination != null && destination.startsWith(DESTINATION_PREFIX) && subscriptionId != null
+                        && !addSpectator(destination.substring(DESTINATION_PREFIX.length()), sessionId, subscriptionId, destination)) {
+                    return null; // Abo verwerfen, der Broker registriert es nicht
+                }
+            }
+            case UNSUBSCRIBE -> {
+                Map<String, Spectator> session = sessions.get(sessionId);
+                String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+                if (session != null && subscriptionId != null) {
+                    removeSpectator(session.remove(subscriptionId));
+                }
+            }
+            case DISCONNECT -> {
+                Map<String, Spectator> session = sessions.remove(sessionId);
+                if (session != null) {
+                    session.values().forEach(this::removeSpectator);
+                }
+            }
+            default -> {
+                // andere Nachrichten betreffen Zuschauer nicht
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        MessageHeaders headers = message.getHeaders();
+        if (!Boolean.TRUE.equals(headers.get(SPECTATOR_HEADER))) return;
+        Map<String, Spectator> session = sessions.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        Spectator spectator = session != null ? session.get(SimpMessageHeaderAccessor.getSubscriptionId(headers)) : null;
+        if (spectator != null) {
+            spectator.inFlight.set(false);
+        }
+    }
+
+    // false, wenn die Partie nicht läuft oder die Session schon genug Partien beobachtet
+    boolean addSpectator(String lobbyId, String sessionId, String subscriptionId, String destination) {
+        SpectatorSnapshotSource source = snapshotSource;
+        if (source != null && !source.isLive(lobbyId)) {
+            logger.debug("Zuschauer {}: keine laufende Partie in Lobby {}", sessionId, lobbyId);
+            return false;
+        }
+        Map<String, Spectator> session = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        // Anmeldungen einer Session kommen nacheinander über den Inbound-Kanal, Prüfen und Eintragen reicht daher
+        if (!session.containsKey(subscriptionId) && session.size() >= maxPerSession) {
+            logger.warn("Zuschauer {} hat bereits {} Abos, Abo für Lobby {} abgelehnt", sessionId, session.size(), lobbyId);
+            return false;
+        }
+        // Anmelden unter compute(), damit ein gerade leer gewordener Feed nicht parallel entfernt wird
+        Spectator[] added = new Spectator[1];
+        feeds.compute(lobbyId, (id, existing) -> {
+            GameFeed feed = existing != null ? existing : new GameFeed(id);
+            added[0] = new Spectator(sessionId, subscriptionId, destination, feed);
+            feed.spectators.add(added[0]);
+            return feed;
+        });
+        removeSpectator(session.put(subscriptionId, added[0]));
+        logger.debug("Zuschauer {} beobachtet Lobby {}", sessionId, lobbyId);
+        return true;
+    }
+
+    private void removeSpectator(Spectator spectator) {
+        if (spectator == null) return;
+        GameFeed feed = spectator.feed;
+        feed.spectators.remove(spectator);
+        // Leeren Feed entfernen, damit publish() wieder nichts kostet
+        feeds.computeIfPresent(feed.lobbyId, (id, f) -> f == feed && f.spectators.isEmpty() ? null : f);
+    }
+
+    // --- Fan-out ---
+
+    private void runFanout() {
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(flushIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flushAll();
+        }
+    }
+
+    // Ein Durchlauf über alle Partien; package-private für Tests
+    void flushAll() {
+        for (GameFeed feed : feeds.values()) {
+            try {
+                flush(feed);
+            } catch (RuntimeException e) {
+                logger.error("Fan-out für Lobby {} fehlgeschlagen", feed.lobbyId, e);
+            }
+        }
+    }
+
+    private void flush(GameFeed feed) {
+        List<Spectator> targets = new ArrayList<>();
+        List<byte[]> batches = new ArrayList<>();
+        boolean requestSnapshot = false;
+        boolean ended;
+
+        // Unter dem Lock nur Bündel zusammenstellen, gesendet wird danach
+        synchronized (feed) {
+            ended = feed.ended;
+            Map<BatchKey, byte[]> shared = new HashMap<>();
+            for (Spectator spectator : feed.spectators) {
+                if (!ended && spectator.inFlight.get()) continue; // langsamer Zuschauer: Frames sammeln sich im Ring
+                int from;
+                boolean withSnapshot = false;
+                if (spectator.cursor >= 0 && feed.covers(spectator.cursor)) {
+                    from = spectator.cursor;
+                } else if (feed.snapshot != null && feed.covers(feed.snapshotSeq)) {
+                    from = feed.snapshotSeq;
+                    withSnapshot = true;
+                } else if (ended) {
+                    from = feed.lastSeq; // nur noch der Abschluss-Frame
+                } else {
+                    requestSnapshot = true;
+                    continue;
+                }
+                if (from >= feed.lastSeq && !withSnapshot && (!ended || feed.finalFrame == null)) continue; // nichts Neues
+
+                // Zuschauer auf gleichem Stand bekommen dasselbe Bündel
+                byte[] batch = shared.computeIfAbsent(new BatchKey(from, withSnapshot), k -> feed.batch(k.from(), k.withSnapshot()));
+                targets.add(spectator);
+                batches.add(batch);
+                spectator.cursor = feed.lastSeq;
+            }
+            if (requestSnapshot) {
+                long now = System.nanoTime();
+                if (feed.snapshotRequestedAt != 0 && now - feed.snapshotRequestedAt < SNAPSHOT_RETRY_NANOS) {
+                    requestSnapshot = false;
+                } else {
+                    feed.snapshotRequestedAt = now;
+                }
+            }
+        }
+
+        for (int i = 0; i < targets.size(); i++) {
+            send(targets.get(i), batches.get(i));
+        }
+        SpectatorSnapshotSource source = snapshotSource;
+        if (requestSnapshot && source != null) {
+            if (source.isLive(feed.lobbyId)) {
+                source.requestSnapshot(feed.lobbyId);
+            } else {
+                // Partie ist ohne endGame() verschwunden: Feed beim nächsten Durchlauf abbauen statt ewig nachzufragen
+                endGame(feed.lobbyId, null);
+            }
+        }
+        if (ended) {
+            feeds.remove(feed.lobbyId, feed);
+            for (Spectator spectator : feed.spectators) {
+                Map<String, Spectator> session = sessions.get(spectator.sessionId);
+                if (session != null) {
+                    session.remove(spectator.subscriptionId, spectator);
+                }
+            }
+        }
+    }
+
+    private void send(Spectator spectator, byte[] batch) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(spectator.sessionId);
+        accessor.setSubscriptionId(spectator.subscriptionId);
+        accessor.setDestination(spectator.destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(SPECTATOR_HEADER, Boolean.TRUE);
+        accessor.setLeaveMutable(true);
+        spectator.inFlight.set(true);
+        if (!clientOutboundChannel.send(MessageBuilder.createMessage(batch, accessor.getMessageHeaders()))) {
+            spectator.inFlight.set(false);
+        }
+    }
+
+    // Ringpuffer und Zuschauer einer Partie; Ring/Snapshot nur unter synchronized(this)
+    private final class GameFeed {
+        private final String lobbyId;
+        private final byte[][] frames = new byte[ringSize][];
+        private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+        private int lastSeq = -1;
+        private int count;
+        private byte[] snapshot;
+        private int snapshotSeq = -1;
+        private long snapshotRequestedAt;
+        private byte[] finalFrame;
+        private boolean ended;
+
+        private GameFeed(String lobbyId) {
+            this.lobbyId = lobbyId;
+        }
+
+        private void append(int seq, byte[] frame) {
+            if (count > 0 && seq != lastSeq + 1) {
+                count = 0; // Lücke: alte Frames passen nicht mehr
+            }
+            frames[seq & (ringSize - 1)] = frame;
+            lastSeq = seq;
+            count = Math.min(count + 1, ringSize);
+        }
+
+        // true, wenn ab Stand seq alle folgenden Frames im Ring liegen
+        private boolean covers(int seq) {
+            return seq >= lastSeq - count && seq <= lastSeq;
+        }
+
+        // JSON-Array: [Snapshot,] Frames nach Stand from [, Abschluss-Frame]
+        private byte[] batch(int from, boolean withSnapshot) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write('[');
+            boolean first = true;
+            if (withSnapshot) {
+                out.writeBytes(snapshot);
+                first = false;
+            }
+            for (int seq = from + 1; seq <= lastSeq; seq++) {
+                if (!first) out.write(',');
+                out.writeBytes(frames[seq & (ringSize - 1)]);
+                first = false;
+            }
+            if (ended && finalFrame != null) {
+                if (!first) out.write(',');
+                out.writeBytes(finalFrame);
+            }
+            out.write(']');
+            return out.toByteArray();
+        }
+    }
+
+    private record BatchKey(int from, boolean withSnapshot) {
+    }
+
+    private static final class Spectator {
+        private final String sessionId;
+        private final String subscriptionId;
+        private final String destination;
+        private final GameFeed feed;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private int cursor = -1; // zuletzt zugestellter Stand, -1 = braucht Snapshot
+
+        private Spectator(String sessionId, String subscriptionId, String destination, GameFeed feed) {
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            this.destination = destination;
+            this.feed = feed;
+        }
+    }
+}
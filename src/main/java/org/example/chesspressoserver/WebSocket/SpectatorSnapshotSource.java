@@ -0,0 +1,12 @@
+package org.example.chesspressoserver.WebSocket;
+
+/**
+ * Liefert dem SpectatorHub ein vollständiges Brett, wenn ein Zuschauer neu ist oder zu weit zurückliegt.
+ * Die Antwort kommt asynchron über {@link SpectatorHub#publishSnapshot}.
+ */
+public interface SpectatorSnapshotSource {
+    void requestSnapshot(String lobbyId);
+
+    // true, solange zu der Lobby eine Partie läuft; unbekannte oder beendete Partien bekommen keinen Feed
+    boolean isLive(String lobbyId);
+}
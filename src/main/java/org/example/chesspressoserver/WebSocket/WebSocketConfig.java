@@ -1,21 +1,40 @@
 package org.example.chesspressoserver.WebSocket;
 
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final WireFormatInterceptor wireFormatInterceptor;
+    private final SpectatorHub spectatorHub;
+    private final OutboundLimiter outboundLimiter;
+    private final int sendTimeLimitMs;
+
+    // Kanäle auf virtuellen Threads: blockierende Handler (JPA, Sleeps) belegen keinen Pool-Thread mehr
+    private final boolean virtualThreads;
 
-    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor) {
+    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor,
+                           WireFormatInterceptor wireFormatInterceptor,
+                           SpectatorHub spectatorHub,
+                           OutboundLimiter outboundLimiter,
+                           @Value("${chesspresso.ws.outbound.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.webSocketAuthInterceptor = webSocketAuthInterceptor;
+        this.wireFormatInterceptor = wireFormatInterceptor;
+        this.spectatorHub = spectatorHub;
+        this.outboundLimiter = outboundLimiter;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.virtualThreads = virtualThreads;
     }
 
     @Override
@@ -35,6 +54,17 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/websocket")
                 .setAllowedOriginPatterns("*")
                 .addInterceptors(new WebSocketHandshakeInterceptor());
+
+        // Ohne festen Pool könnten Nachrichten einer Session sonst überholen
+        registry.setPreserveReceiveOrder(virtualThreads);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Zählt ausstehende Frames pro Session (OutboundLimiter); Springs Sendepuffer bleibt als harte Grenze dahinter
+        registration.addDecoratorFactory(outboundLimiter);
+        registration.setSendBufferSizeLimit((int) Math.min(Integer.MAX_VALUE, 2 * outboundLimiter.getMaxBytes()));
+        registration.setSendTimeLimit(sendTimeLimitMs);
     }
 
     @Override
@@ -45,10 +75,23 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/app");
         // Prefix für benutzerspezifische Nachrichten
         registry.setUserDestinationPrefix("/user");
+        registry.setPreservePublishOrder(virtualThreads);
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        registration.interceptors(webSocketAuthInterceptor, wireFormatInterceptor, spectatorHub);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Zuschauer bekommen erst wieder Frames, wenn ihre letzte Nachricht verarbeitet ist
+        registration.interceptors(outboundLimiter, spectatorHub);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        }
     }
 }
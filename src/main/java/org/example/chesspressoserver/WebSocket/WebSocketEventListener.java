@@ -1,8 +1,8 @@
 package org.example.chesspressoserver.WebSocket;
 
-import org.example.chesspressoserver.components.ConnectionStatusBroadcaster;
 import org.example.chesspressoserver.service.LobbyService;
 import org.example.chesspressoserver.service.OnlinePlayerService;
+import org.example.chesspressoserver.service.TimerService;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
@@ -12,6 +12,9 @@ import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
 import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
@@ -20,9 +23,12 @@ import org.slf4j.LoggerFactory;
 @Component
 public class WebSocketEventListener {
     private final OnlinePlayerService onlinePlayerService;
-    private final ConnectionStatusBroadcaster connectionStatusBroadcaster;
     private final LobbyService lobbyService;
     private final LobbyWebSocketManager lobbyManager;
+    private final TimerService timerService;
+
+    // Verzögerte Entfernungen nach Disconnect, werden bei Reconnect abgebrochen
+    private final Map<String, TimerService.Timeout> pendingRemovals = new ConcurrentHashMap<>();
 
     // Pattern um Lobby-IDs aus Subscription-Destinations zu extrahieren
     private static final Pattern LOBBY_TOPIC_PATTERN = Pattern.compile("/topic/lobby/([a-zA-Z0-9]+)");
@@ -32,13 +38,13 @@ public class WebSocketEventListener {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketEventListener.class);
 
     public WebSocketEventListener(OnlinePlayerService onlinePlayerService,
-                                ConnectionStatusBroadcaster connectionStatusBroadcaster,
                                 LobbyService lobbyService,
-                                LobbyWebSocketManager lobbyManager) {
+                                LobbyWebSocketManager lobbyManager,
+                                TimerService timerService) {
         this.onlinePlayerService = onlinePlayerService;
-        this.connectionStatusBroadcaster = connectionStatusBroadcaster;
         this.lobbyService = lobbyService;
         this.lobbyManager = lobbyManager;
+        this.timerService = timerService;
     }
 
     @EventListener
@@ -51,14 +57,14 @@ public class WebSocketEventListener {
 
         if (user != null && !user.getName().equals(ANONYMOUS)) {
             String userName = user.getName();
+            // Reconnect innerhalb der Karenzzeit: geplante Entfernung abbrechen
+            TimerService.Timeout removal = pendingRemovals.remove(userName);
+            if (removal != null && removal.cancel()) {
+                logger.info("{}{} reconnected, removal cancelled", PLAYER_PREFIX, userName);
+            }
+            // Join-Diff verschickt der PresenceService gebündelt
             onlinePlayerService.updateHeartbeat(userName);
             logger.info("{}{} connected via WebSocket", PLAYER_PREFIX, userName);
-
-            try {
-                connectionStatusBroadcaster.broadcastPlayerUpdate();
-            } catch (Exception e) {
-                logger.error("Error broadcasting player update on connect: {}", e.getMessage());
-            }
         }
     }
 
@@ -139,17 +145,19 @@ public class WebSocketEventListener {
 
             // Entferne aus OnlinePlayerService nach kurzer Verzögerung
             // (um Reconnection-Versuche zu ermöglichen)
-            new Thread(() -> {
+            TimerService.Timeout removal = timerService.schedule(() -> {
+                // eigenen (abgelaufenen) Eintrag austragen, einen neueren Timer stehen lassen
+                pendingRemovals.computeIfPresent(userName, (name, timeout) -> timeout.isExpired() ? null : timeout);
                 try {
-                    Thread.sleep(5000); // 5 Sekunden warten
                     onlinePlayerService.removePlayer(userName);
-                    connectionStatusBroadcaster.broadcastPlayerUpdate();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     logger.error("Error removing player on disconnect: {}", e.getMessage());
                 }
-            }).start();
+            }, 5, TimeUnit.SECONDS); // 5 Sekunden warten
+            TimerService.Timeout previous = pendingRemovals.put(userName, removal);
+            if (previous != null) {
+                previous.cancel();
+            }
         }
     }
 }
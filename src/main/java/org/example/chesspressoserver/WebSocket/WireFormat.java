@@ -0,0 +1,40 @@
+package org.example.chesspressoserver.WebSocket;
+
+/**
+ * Format der Game-Topics, vom Client pro Subscription über den STOMP-Header "format" gewählt.
+ * JSON bleibt der Standard für alte Clients; FEN und BINARY werden auf eigene Ziele
+ * (Suffix an der Destination) umgeleitet, siehe {@link WireFormatInterceptor}.
+ */
+public enum WireFormat {
+    JSON(""),
+    FEN(".fen"),
+    BINARY(".bin");
+
+    public static final String HEADER = "format";
+
+    private final String suffix;
+
+    WireFormat(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String destination(String base) {
+        return base + suffix;
+    }
+
+    // Unbekannte oder fehlende Werte fallen auf JSON zurück
+    public static WireFormat fromHeader(String value) {
+        if (value == null) return JSON;
+        return switch (value.trim().toLowerCase()) {
+            case "fen", "text" -> FEN;
+            case "binary", "bin" -> BINARY;
+            default -> JSON;
+        };
+    }
+
+    // Nur Zug- und Brett-Topics eines Spiels haben kompakte Varianten
+    public static boolean supports(String destination) {
+        return destination != null && destination.startsWith("/topic/game/")
+                && (destination.endsWith("/move") || destination.endsWith("/board"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.chesspressoserver.WebSocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leitet SUBSCRIBEs mit Header "format: fen|binary" auf Game-Topics an die Variante mit Suffix um
+ * (z.B. /topic/game/ABC/move.bin) und zählt die Abonnenten je Variante, damit der Server
+ * kompakte Frames nur kodiert, wenn sie auch jemand empfängt.
+ */
+@Component
+public class WireFormatInterceptor implements ChannelInterceptor {
+
+    // sessionId -> (subscriptionId -> umgeleitete Destination)
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> subscriberCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        SimpMessageType type = accessor.getMessageType();
+        if (type == SimpMessageType.SUBSCRIBE) {
+            return handleSubscribe(message, accessor);
+        }
+        if (type == SimpMessageType.UNSUBSCRIBE) {
+            Map<String, String> session = subscriptions.get(accessor.getSessionId());
+            if (session != null && accessor.getSubscriptionId() != null) {
+                release(session.remove(accessor.getSubscriptionId()));
+            }
+        } else if (type == SimpMessageType.DISCONNECT) {
+            Map<String, String> session = subscriptions.remove(accessor.getSessionId());
+            if (session != null) {
+                session.values().forEach(this::release);
+            }
+        }
+        return message;
+    }
+
+    // true, wenn mindestens ein Client die Variante abonniert hat
+    public boolean hasSubscribers(String destination) {
+        return subscriberCounts.containsKey(destination);
+    }
+
+    private Message<?> handleSubscribe(Message<?> message, StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        WireFormat format = WireFormat.fromHeader(accessor.getFirstNativeHeader(WireFormat.HEADER));
+        if (format == WireFormat.JSON || !WireFormat.supports(destination)
+                || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return message;
+        }
+        String target = format.destination(destination);
+        String previous = subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), target);
+        release(previous);
+        subscriberCounts.merge(target, 1, Integer::sum);
+
+        accessor.setDestination(target);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private void release(String destination) {
+        if (destination != null) {
+            subscriberCounts.computeIfPresent(destination, (d, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.example.chesspressoserver.components;
 
-import org.example.chesspressoserver.service.OnlinePlayerService;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.example.chesspressoserver.service.BroadcastService;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -12,13 +11,17 @@ import org.slf4j.LoggerFactory;
 
 @Component
 public class ConnectionStatusBroadcaster {
-    private final OnlinePlayerService onlinePlayerService;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final BroadcastService broadcastService;
     private static final Logger logger = LoggerFactory.getLogger(ConnectionStatusBroadcaster.class);
 
-    public ConnectionStatusBroadcaster(SimpMessagingTemplate simpMessagingTemplate, OnlinePlayerService onlinePlayerService) {
-        this.simpMessagingTemplate = simpMessagingTemplate;
-        this.onlinePlayerService = onlinePlayerService;
+    // Konstanter Heartbeat, wird nur einmal serialisiert
+    static final Map<String, Object> STATUS_UPDATE = Map.of(
+            "type", "status-update",
+            "status", "online"
+    );
+
+    public ConnectionStatusBroadcaster(BroadcastService broadcastService) {
+        this.broadcastService = broadcastService;
     }
 
     @Scheduled(fixedRate = 5000) // Alle 5 Sekunden
@@ -26,18 +29,13 @@ public class ConnectionStatusBroadcaster {
         broadcastPlayerUpdate();
     }
 
-    // Neue Methode für sofortige Updates bei Connect/Disconnect
+    // Nur noch Lebenszeichen des Servers; Online-Änderungen kommen als Diffs vom PresenceService
     public void broadcastPlayerUpdate() {
 
         try {
-            Map<String, Object> publicMessage = Map.of(
-                    "type", "status-update",
-                    "status", "online"
-            );
-            simpMessagingTemplate.convertAndSend("/topic/players", publicMessage);
+            broadcastService.broadcastStatic("/topic/players", STATUS_UPDATE);
         } catch (Exception e) {
             logger.error("Failed to send public message: {}", e.getMessage());
         }
-        logger.info("Broadcasted players status to players: {}", onlinePlayerService.getOnlinePlayers());
     }
 }
@@ -13,7 +13,7 @@ public class PlayerCleanupTask {
         this.onlinePlayerService = onlinePlayerService;
     }
 
-    @Scheduled(fixedRate = 40000) // Alle 40 Sekunden - schnellere Cleanup-Frequenz
+    @Scheduled(fixedRate = 1000) // Jede Sekunde - arbeitet nur die abgelaufenen Buckets ab
     public void cleanupInactivePlayers() {
         onlinePlayerService.cleanup();
     }
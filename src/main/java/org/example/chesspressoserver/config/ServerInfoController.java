@@ -1,18 +1,33 @@
 package org.example.chesspressoserver.config;
 
+import org.example.chesspressoserver.WebSocket.OutboundLimiter;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class ServerInfoController {
 
+    private final OutboundLimiter outboundLimiter;
+
+    public ServerInfoController(OutboundLimiter outboundLimiter) {
+        this.outboundLimiter = outboundLimiter;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("{\"status\":\"UP\"}");
     }
+
+    // Ausstehende WebSocket-Frames und Zähler der Überlauf-Strategien
+    @GetMapping("/websocket/outbound")
+    public ResponseEntity<Map<String, Long>> outbound() {
+        return ResponseEntity.ok(outboundLimiter.getCounters());
+    }
 }
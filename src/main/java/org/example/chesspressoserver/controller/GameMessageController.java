@@ -2,14 +2,20 @@ package org.example.chesspressoserver.controller;
 
 import lombok.*;
 import org.example.chesspressoserver.gamelogic.GameController;
+import org.example.chesspressoserver.gamelogic.GameExecutor;
 import org.example.chesspressoserver.gamelogic.GameManager;
+import org.example.chesspressoserver.gamelogic.WireFrames;
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
 import org.example.chesspressoserver.gamelogic.modles.Board;
 import org.example.chesspressoserver.models.EndType;
 import org.example.chesspressoserver.models.gamemodels.*;
-import org.example.chesspressoserver.repository.MoveRepository;
-import org.example.chesspressoserver.repository.GameRepository;
-import org.example.chesspressoserver.models.MoveEntity;
-import org.example.chesspressoserver.models.GameEntity;
+import org.example.chesspressoserver.dto.ClockState;
+import org.example.chesspressoserver.service.ClockService;
+import org.example.chesspressoserver.service.MovePersistenceService;
+import org.example.chesspressoserver.WebSocket.SpectatorHub;
+import org.example.chesspressoserver.WebSocket.SpectatorSnapshotSource;
+import org.example.chesspressoserver.WebSocket.WireFormat;
+import org.example.chesspressoserver.WebSocket.WireFormatInterceptor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
@@ -20,31 +26,44 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.time.OffsetDateTime;
 
 @Controller
-public class GameMessageController {
+public class GameMessageController implements SpectatorSnapshotSource {
     @Getter
     private final GameManager gameManager;
     private final SimpMessagingTemplate messagingTemplate;
-    private final MoveRepository moveRepository;
-    private final GameRepository gameRepository;
+    private final MovePersistenceService movePersistenceService;
     private final GameRestController gameRestController;
+    private final GameExecutor gameExecutor;
+    private final ClockService clockService;
+    private final WireFormatInterceptor wireFormats;
+    private final SpectatorHub spectatorHub;
 
     private static final String TOPIC_GAME_PREFIX = "/topic/game/";
 
-    public GameMessageController(GameManager gameManager, SimpMessagingTemplate messagingTemplate, MoveRepository moveRepository, GameRepository gameRepository, GameRestController gameController) {
+    public GameMessageController(GameManager gameManager, SimpMessagingTemplate messagingTemplate, MovePersistenceService movePersistenceService, GameRestController gameController, GameExecutor gameExecutor, ClockService clockService, WireFormatInterceptor wireFormats, SpectatorHub spectatorHub) {
         this.gameManager = gameManager;
         this.messagingTemplate = messagingTemplate;
-        this.moveRepository = moveRepository;
-        this.gameRepository = gameRepository;
+        this.movePersistenceService = movePersistenceService;
         this.gameRestController = gameController;
+        this.gameExecutor = gameExecutor;
+        this.clockService = clockService;
+        this.wireFormats = wireFormats;
+        this.spectatorHub = spectatorHub;
+        // Zuschauer-Snapshots werden in der Mailbox der Lobby gebaut
+        this.spectatorHub.setSnapshotSource(this);
     }
 
     @MessageMapping("/game/position-request")
     public void handleRequest(@Payload PositionRequest request) {
+        if (request.lobbyId == null) return;
+        // Alle Befehle einer Lobby laufen seriell in deren Mailbox
+        gameExecutor.execute(request.lobbyId, () -> processRequest(request));
+    }
+
+    private void processRequest(PositionRequest request) {
         String lobbyId = request.lobbyId;
-        Position  position = new Position(request.position);
+        Position  position = Position.of(request.position);
         GameController gameController = gameManager.getGameByLobby(lobbyId);
         if (gameController == null) return;
         List<String> moves = gameController.getMovesForRequestAsString(position);
@@ -54,13 +73,69 @@ public class GameMessageController {
         );
     }
 
+    // Resync: vollständiges Brett, z.B. beim Beitreten oder wenn der Client eine Lücke in den Sequenznummern sieht
+    @MessageMapping("/game/board-request")
+    public void handleBoardRequest(@Payload BoardRequest request) {
+        if (request.lobbyId == null) return;
+        gameExecutor.execute(request.lobbyId, () -> processBoardRequest(request));
+    }
+
+    private void processBoardRequest(BoardRequest request) {
+        GameController gameController = gameManager.getGameByLobby(request.lobbyId);
+        if (gameController == null) return;
+        String destination = TOPIC_GAME_PREFIX + request.lobbyId + "/board";
+        int seq = gameController.getPlyCount();
+        messagingTemplate.convertAndSend(destination,
+                new BoardSnapshot(request.lobbyId, seq, getCurrentBoard(gameController), gameController.getAktiveTeam()));
+        sendCompact(destination, WireFrames.TYPE_BOARD, gameController, seq, 0, -1, false, null);
+    }
+
+    @Override
+    public void requestSnapshot(String lobbyId) {
+        gameExecutor.execute(lobbyId, () -> {
+            GameController gameController = gameManager.getGameByLobby(lobbyId);
+            if (gameController == null) return;
+            spectatorHub.publishSnapshot(lobbyId, gameController.getPlyCount(),
+                    new BoardSnapshot(lobbyId, gameController.getPlyCount(), getCurrentBoard(gameController),
+                            gameController.getAktiveTeam()));
+        });
+    }
+
+    @Override
+    public boolean isLive(String lobbyId) {
+        return gameManager.getGameByLobby(lobbyId) != null;
+    }
+
     @MessageMapping("/game/move")
     public void handleMove(@Payload MoveRequest moveRequest) {
+        if (moveRequest.lobbyId == null) return;
+        gameExecutor.execute(moveRequest.lobbyId, () -> processMove(moveRequest));
+    }
+
+    private void processMove(MoveRequest moveRequest) {
         String lobbyId = moveRequest.lobbyId;
-        Position start = new Position(moveRequest.getFrom());
-        Position end = new Position(moveRequest.getTo());
         GameController gameController = gameManager.getGameByLobby(lobbyId);
         if (gameController == null) return;
+
+        // Validierung vor jeder Änderung: ungültige oder veraltete Züge kosten nur einen Bitset-Lookup
+        Position start;
+        Position end;
+        try {
+            start = Position.of(moveRequest.getFrom());
+            end = Position.of(moveRequest.getTo());
+        } catch (IllegalArgumentException e) {
+            sendMoveError(lobbyId, moveRequest, "INVALID_POSITION");
+            return;
+        }
+        // Zeit abgelaufen: der Flag-Fall-Timer beendet die Partie
+        if (gameController.isFlagFallen()) {
+            sendMoveError(lobbyId, moveRequest, "TIME_EXPIRED");
+            return;
+        }
+        if (!gameController.isLegalMove(start, end)) {
+            sendMoveError(lobbyId, moveRequest, "ILLEGAL_MOVE");
+            return;
+        }
         PieceType promotedPiece = moveRequest.getPromotedPiece();
 
         // Check pawn promotion before applyMove()
@@ -71,10 +146,16 @@ public class GameMessageController {
                 new PromotionRequest(moveRequest.to, moveRequest.from, moveRequest.teamColor));
             return;
         }
+        if (isPromotion && (promotedPiece == PieceType.KING || promotedPiece == PieceType.PAWN)) {
+            sendMoveError(lobbyId, moveRequest, "INVALID_PROMOTION");
+            return;
+        }
 
         // Führe den Zug aus
         Move move = gameController.applyMove(start, end, promotedPiece);
-        Map<String, PieceInfo> boardMap = getCurrentBoard(gameController);
+        gameManager.recordMove(lobbyId, gameController);
+        clockService.onMoveApplied(lobbyId, gameController);
+        Map<String, PieceInfo> changes = getChangedSquares(gameController);
 
         // Prüfe auf Schach und Schachmatt
         Position checkedKingPosition = null;
@@ -101,37 +182,29 @@ public class GameMessageController {
         String isCheck = checkedKingPosition != null ? checkedKingPosition.getPos() : "";
         SendMove sendMove = new SendMove(move);
 
-        if(!gameController.isStalemate(gameController.getAktiveTeam())){
-        // Sende die Response
-        messagingTemplate.convertAndSend(
-            TOPIC_GAME_PREFIX + moveRequest.lobbyId + "/move",
-            new MoveResponse(boardMap, isCheck, gameController.getAktiveTeam(),
-                moveRequest.lobbyId, sendMove, checkMatePositions, false)
-        );}
-        else{
-            // Sende die Response bei Patt
-            messagingTemplate.convertAndSend(
-                TOPIC_GAME_PREFIX + moveRequest.lobbyId + "/move",
-        new MoveResponse(boardMap, isCheck, gameController.getAktiveTeam(),
-            moveRequest.lobbyId, sendMove, checkMatePositions, true)
-        );
+        // Remis (Patt, 50 Züge, Material, Stellungswiederholung)?
+        DrawReason drawReason = gameController.getDrawReason(gameController.getAktiveTeam());
+        if (drawReason != null) {
+            // Remis beendet die Partie: sonst meldet die weiterlaufende Serveruhr später noch einen Zeitverlust
+            clockService.stopClock(lobbyId);
         }
 
-        // Nach applyMove: Zug in DB speichern
-        java.util.UUID gameId = gameController.getGameId();
-        GameEntity gameEntity = gameRepository.findById(gameId).orElse(null);
-        if (gameEntity != null) {
-            MoveEntity moveEntity = new MoveEntity();
-            moveEntity.setGame(gameEntity);
-            int moveNumber = moveRepository.findByGameIdOrderByMoveNumberAsc(gameId).size() + 1;
-            moveEntity.setMoveNumber(moveNumber);
-            String pieceAscii = getAsciiForPiece(moving.getType(), moving.getColour());
-            moveEntity.setMoveNotation(
-                pieceAscii + ": " + move.getStart().getPos().toLowerCase() + " -> " + move.getEnd().getPos().toLowerCase()
-            );
-            moveEntity.setCreatedAt(OffsetDateTime.now());
-            moveRepository.save(moveEntity);
-        }
+        // Sende die Response (JSON für alte Clients, kompakte Varianten nur bei Abonnenten)
+        String destination = TOPIC_GAME_PREFIX + moveRequest.lobbyId + "/move";
+        MoveResponse response = new MoveResponse(gameController.getPlyCount(), changes, isCheck, gameController.getAktiveTeam(),
+                moveRequest.lobbyId, sendMove, checkMatePositions, drawReason != null, drawReason,
+                ClockState.of(gameController.getClock(), System.nanoTime()));
+        messagingTemplate.convertAndSend(destination, response);
+        sendCompact(destination, WireFrames.TYPE_MOVE, gameController, gameController.getPlyCount(),
+                gameController.getLastMoveCode(), checkedKingPosition != null ? checkedKingPosition.getSquare() : -1,
+                !checkMatePositions.isEmpty(), drawReason);
+        // Zuschauer erst nach den Spielern: nur in den Ringpuffer, verteilt wird im Fan-out-Thread
+        spectatorHub.publish(lobbyId, gameController.getPlyCount(), response);
+
+        // Nach applyMove: Zug asynchron in DB speichern (Zugnummer = Halbzüge der Partie)
+        String pieceAscii = getAsciiForPiece(moving.getType(), moving.getColour());
+        movePersistenceService.enqueue(gameController.getGameId(), gameController.getPlyCount(),
+                pieceAscii + ": " + move.getStart().getPos().toLowerCase() + " -> " + move.getEnd().getPos().toLowerCase());
 
         if(!checkMatePositions.isEmpty()) {
             gameRestController.handleGameEnd(
@@ -140,12 +213,33 @@ public class GameMessageController {
         }
     }
 
+    // FEN- und Binär-Frames nur kodieren, wenn die jeweilige Variante abonniert ist
+    private void sendCompact(String destination, byte type, GameController game, int seq, int move,
+                             int checkSquare, boolean checkMate, DrawReason drawReason) {
+        String fenDestination = WireFormat.FEN.destination(destination);
+        if (wireFormats.hasSubscribers(fenDestination)) {
+            messagingTemplate.convertAndSend(fenDestination,
+                    WireFrames.text(game, seq, move, checkSquare, checkMate, drawReason));
+        }
+        String binaryDestination = WireFormat.BINARY.destination(destination);
+        if (wireFormats.hasSubscribers(binaryDestination)) {
+            messagingTemplate.convertAndSend(binaryDestination,
+                    WireFrames.binary(type, game, seq, move, checkSquare, checkMate, drawReason, System.nanoTime()));
+        }
+    }
+
+    // Kompakte Fehlermeldung für abgelehnte Züge, Brett und Datenbank bleiben unverändert
+    private void sendMoveError(String lobbyId, MoveRequest moveRequest, String reason) {
+        messagingTemplate.convertAndSend(TOPIC_GAME_PREFIX + lobbyId + "/move/error",
+                new MoveError(String.valueOf(moveRequest.getFrom()), String.valueOf(moveRequest.getTo()), reason));
+    }
+
     public Map<String, PieceInfo> getCurrentBoard(GameController gameController) {
         Board board = gameController.getBoard();
         Map<String, PieceInfo> boardMap = new HashMap<>();
         for(int x = 0; x < 8; x++){
             for (int y = 0; y < 8; y++) {
-                Position pos = new Position(x, y);
+                Position pos = Position.of(x, y);
                 ChessPiece piece = board.getPiece(y, x);
                 if (piece != null) {
                     boardMap.put(pos.toString(), new PieceInfo(piece.getType(), piece.getColour()));
@@ -157,6 +251,22 @@ public class GameMessageController {
         return boardMap;
     }
 
+    // Nur die vom letzten Zug veränderten Felder (2, bei Rochade oder En Passant bis zu 4)
+    public Map<String, PieceInfo> getChangedSquares(GameController gameController) {
+        Board board = gameController.getBoard();
+        int[] squares = new int[4];
+        int count = gameController.getChangedSquares(squares);
+        Map<String, PieceInfo> changes = new HashMap<>(8);
+        for (int i = 0; i < count; i++) {
+            int sq = squares[i];
+            ChessPiece piece = board.getPiece(Bitboards.rank(sq), Bitboards.file(sq));
+            changes.put(Position.of(sq).toString(), piece != null
+                    ? new PieceInfo(piece.getType(), piece.getColour())
+                    : new PieceInfo(PieceType.NULL, TeamColor.NULL));
+        }
+        return changes;
+    }
+
     private boolean checkPromotion(Position end, ChessPiece moving) {
         boolean isPromotion = false;
         if (moving.getType() == PieceType.PAWN) {
@@ -203,6 +313,14 @@ public class GameMessageController {
         private String position;
     }
 
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BoardRequest {
+        private String lobbyId;
+    }
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -221,13 +339,33 @@ public class GameMessageController {
     @AllArgsConstructor
     public static class MoveResponse {
         private final String type = "move";
-        private Map <String, PieceInfo> board;
+        private int seq; // Halbzugnummer nach dem Zug; Lücke beim Client -> /game/board-request
+        private Map<String, PieceInfo> changes;
         private String isCheck;
         private TeamColor activeTeam;
         private String lobbyId;
         private SendMove move;
         private List<String> checkMatePositions;
         private boolean isStalemate = false;
+        private DrawReason drawReason;
+        private ClockState clock;
+    }
+
+    @Data
+    public static class BoardSnapshot {
+        private final String type = "board";
+        private final String lobbyId;
+        private final int seq;
+        private final Map<String, PieceInfo> board;
+        private final TeamColor activeTeam;
+    }
+
+    @Data
+    public static class MoveError {
+        private final String type = "move-error";
+        private final String from;
+        private final String to;
+        private final String reason;
     }
 
     @Data
@@ -5,6 +5,9 @@ import lombok.Data;
 import org.example.chesspressoserver.dto.*;
 import org.example.chesspressoserver.gamelogic.GameController;
 import org.example.chesspressoserver.gamelogic.GameManager;
+import org.example.chesspressoserver.gamelogic.GameExecutor;
+import org.example.chesspressoserver.gamelogic.GameJournal;
+import org.example.chesspressoserver.WebSocket.SpectatorHub;
 import org.example.chesspressoserver.gamelogic.modles.Board;
 import org.example.chesspressoserver.models.*;
 import org.example.chesspressoserver.models.gamemodels.ChessPiece;
@@ -14,13 +17,19 @@ import org.example.chesspressoserver.models.gamemodels.TeamColor;
 import org.example.chesspressoserver.models.requests.*;
 import org.example.chesspressoserver.service.LobbyService;
 import org.example.chesspressoserver.service.StatsService;
+import org.example.chesspressoserver.service.TimerService;
 import org.example.chesspressoserver.service.UserService;
 import org.example.chesspressoserver.repository.GameRepository;
 import org.example.chesspressoserver.service.GameStartHandler;
+import org.example.chesspressoserver.service.ClockService;
+import org.example.chesspressoserver.service.FlagFallHandler;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.security.Principal;
 import java.time.OffsetDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.user.SimpUserRegistry;
@@ -28,11 +37,15 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @RestController
-public class GameRestController implements GameStartHandler {
+public class GameRestController implements GameStartHandler, FlagFallHandler {
 
     private final GameManager gameManager;
     private final SimpMessagingTemplate messagingTemplate;
@@ -41,11 +54,18 @@ public class GameRestController implements GameStartHandler {
     private final GameRepository gameRepository;
     private final StatsService statsService;
     private final SimpUserRegistry simpUserRegistry;
+    private final GameExecutor gameExecutor;
+    private final TimerService timerService;
+    private final ClockService clockService;
+    private final SpectatorHub spectatorHub;
+    // Datenbank und Statistik nach Spielende: blockierendes JPA gehört nicht in die Mailbox der Lobby
+    private final ExecutorService gameEndWorkers;
 
     private static final Logger logger = LoggerFactory.getLogger(GameRestController.class);
 
     @Autowired
-    public GameRestController(GameManager gameManager, SimpMessagingTemplate messagingTemplate, LobbyService lobbyService, UserService userService, GameRepository gameRepository, StatsService statsService, SimpUserRegistry simpUserRegistry) {
+    public GameRestController(GameManager gameManager, SimpMessagingTemplate messagingTemplate, LobbyService lobbyService, UserService userService, GameRepository gameRepository, StatsService statsService, SimpUserRegistry simpUserRegistry, GameExecutor gameExecutor, TimerService timerService, ClockService clockService, SpectatorHub spectatorHub,
+                              @Value("${chesspresso.game-end.threads:2}") int gameEndThreads) {
         this.gameManager = gameManager;
         this.messagingTemplate = messagingTemplate;
         this.lobbyService = lobbyService;
@@ -53,6 +73,18 @@ public class GameRestController implements GameStartHandler {
         this.gameRepository = gameRepository;
         this.statsService = statsService;
         this.simpUserRegistry = simpUserRegistry;
+        this.gameExecutor = gameExecutor;
+        this.timerService = timerService;
+        this.clockService = clockService;
+        this.spectatorHub = spectatorHub;
+        AtomicInteger workerIds = new AtomicInteger();
+        this.gameEndWorkers = Executors.newFixedThreadPool(Math.max(1, gameEndThreads), r -> {
+            Thread thread = new Thread(r, "game-end-" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Flag-Fall der Serveruhr läuft über handleGameEnd
+        this.clockService.setFlagFallHandler(this);
     }
 
     private static final String TOPIC_LOBBY_PREFIX = "/topic/lobby/";
@@ -93,7 +125,10 @@ public class GameRestController implements GameStartHandler {
         gameEntity.setStartedAt(OffsetDateTime.now());
         gameEntity.setLobbyId(request.getLobbyId());
         gameRepository.save(gameEntity);
-        gameManager.startGame(request.getLobbyId(), gameEntity.getId());
+        gameManager.startGame(request.getLobbyId(), gameEntity.getId(), lobbyInfo(lobby));
+        clockService.startClock(request.getLobbyId(), lobby.getGameTime());
+        // Vollständiges Brett nur einmal beim Start, danach nur noch Deltas (seq = Halbzugnummer)
+        Map<String, PieceInfo> board = getBoardForLobby(request.getLobbyId());
         messagingTemplate.convertAndSend(
                 TOPIC_LOBBY_PREFIX + request.getLobbyId(),
                 Map.of(
@@ -104,11 +139,35 @@ public class GameRestController implements GameStartHandler {
                         "whitePlayer", whitePlayerName,
                         "blackPlayer", blackPlayerName,
                         "randomPlayers", request.isRandomPlayers(),
-                        "board", getBoardForLobby(request.getLobbyId())
+                        "board", board,
+                        "seq", 0
                 )
         );
     }
 
+    private static GameJournal.LobbyInfo lobbyInfo(Lobby lobby) {
+        return new GameJournal.LobbyInfo(lobby.getWhitePlayer(), lobby.getBlackPlayer(),
+                lobby.getGameTime() != null ? lobby.getGameTime().name() : null);
+    }
+
+    // Nach einem Neustart: Lobby und Uhr der wiederhergestellten Partien anlegen, damit sie regulär enden können
+    @PostConstruct
+    public void restoreRecoveredGames() {
+        for (GameJournal.RecoveredGame recovered : gameManager.takeRecoveredGames()) {
+            GameJournal.LobbyInfo info = recovered.lobby();
+            GameTime gameTime = info.gameTime() != null ? GameTime.valueOf(info.gameTime()) : null;
+            lobbyService.restoreLobby(recovered.lobbyId(), info.whitePlayer(), info.blackPlayer(), gameTime);
+            clockService.restoreClock(recovered.lobbyId(), recovered.whiteRemainingMillis(), recovered.blackRemainingMillis());
+        }
+    }
+
+    // Laufende Ergebnis-Speicherungen noch abschließen
+    @PreDestroy
+    public void shutdownGameEndWorkers() throws InterruptedException {
+        gameEndWorkers.shutdown();
+        gameEndWorkers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
     private Map<String, PieceInfo> getBoardForLobby(String lobbyId) {
         GameController gameController = gameManager.getGameByLobby(lobbyId);
         Map<String, PieceInfo> boardMap = new HashMap<>();
@@ -116,7 +175,7 @@ public class GameRestController implements GameStartHandler {
         Board board = gameController.getBoard();
         for (int x = 0; x < 8; x++) {
             for (int y = 0; y < 8; y++) {
-                Position pos = new Position(x, y);
+                Position pos = Position.of(x, y);
                 ChessPiece piece = board.getPiece(y, x);
                 if (piece != null) {
                     boardMap.put(pos.toString(), new PieceInfo(piece.getType(), piece.getColour()));
@@ -133,12 +192,30 @@ public class GameRestController implements GameStartHandler {
         if (message.getLobbyId() == null || message.getLobbyId().isEmpty() || message.getPlayer() == null || message.getPlayer() == TeamColor.NULL) {
             return;
         }
+        // Spielende läuft in der Mailbox der Lobby, nach bereits eingereihten Zügen
+        gameExecutor.execute(message.getLobbyId(), () -> processGameEnd(message));
+    }
+
+    private void processGameEnd(GameEndMessage message) {
         Lobby lobby = lobbyService.getLobby(message.getLobbyId());
         if (lobby == null) {
             return;
         }
+        // Partie schon beendet (z. B. Serveruhr war schneller als die TIMEOUT-Meldung alter Clients):
+        // späte Meldungen dürfen Statistik und Spielende nicht ein zweites Mal schreiben
+        GameController game = gameManager.getGameByLobby(message.getLobbyId());
+        if (game == null) {
+            logger.debug("{} für Lobby {} ignoriert, Partie läuft nicht mehr", message.endType, message.getLobbyId());
+            return;
+        }
         EndType endType = message.endType;
 
+        // Zeitablauf entscheidet die Serveruhr, Client-Meldungen ohne abgelaufene Zeit werden ignoriert
+        if (endType == EndType.TIMEOUT && !isFlagged(game, message.getPlayer())) {
+            logger.warn("TIMEOUT für {} in Lobby {} abgelehnt, Zeit nicht abgelaufen", message.getPlayer(), message.getLobbyId());
+            return;
+        }
+
         switch (endType) {
             case RESIGNATION:
                 onResign(message, lobby);
@@ -155,6 +232,17 @@ public class GameRestController implements GameStartHandler {
         }
     }
 
+    @Override
+    public void onFlagFall(String lobbyId, TeamColor loser) {
+        handleGameEnd(new GameEndMessage(lobbyId, loser, EndType.TIMEOUT));
+    }
+
+    // Nur eine laufende Partie ohne Serveruhr (unbegrenzte Bedenkzeit) verlässt sich auf die Client-Meldung
+    private static boolean isFlagged(GameController game, TeamColor player) {
+        if (game.getClock() == null) return true;
+        return game.getClock().isFlagged(player, System.nanoTime());
+    }
+
     private void updateGameEndInDatabase(String lobbyId, String result) {
         Optional<GameEntity> gameOpt = gameRepository.findByLobbyId(lobbyId);
         if (gameOpt.isPresent()) {
@@ -165,7 +253,34 @@ public class GameRestController implements GameStartHandler {
         }
     }
 
+    // In der Mailbox nur das Spielende im Speicher (Uhr, GameManager); Datenbank, Statistik und die
+    // Nachricht mit Spielernamen laufen danach auf gameEndWorkers, damit andere Lobbys nicht warten
     private void handleGameEndCommon(GameEndMessage message, Lobby lobby, EndType endType, boolean callResignGame) {
+        boolean draw = endType == EndType.AGREED_DRAW;
+        boolean success = true;
+        String result = getResultString(endType, message, lobby);
+        String reason = getReasonString(endType);
+        String winner = draw ? null : getWinnerId(message, lobby);
+        String loser = draw ? null : getLoserId(message, lobby);
+
+        clockService.stopClock(message.getLobbyId());
+        if (!draw && callResignGame) {
+            success = gameManager.resignGame(message.getLobbyId());
+        }
+        gameManager.removeGameByLobbyId(message.getLobbyId());
+
+        boolean resigned = success;
+        gameEndWorkers.execute(() -> {
+            try {
+                persistGameEnd(message, lobby, draw, result);
+            } catch (RuntimeException e) {
+                logger.error("Spielende der Lobby {} konnte nicht gespeichert werden", message.getLobbyId(), e);
+            }
+            sendGameEndMessage(endType, callResignGame, resigned, draw, winner, loser, lobby, reason, message);
+        });
+    }
+
+    private void persistGameEnd(GameEndMessage message, Lobby lobby, boolean draw, String result) {
         // Spieler-IDs und User-Objekte ermitteln
         Optional<User> whiteUserOpt = userService.getUserById(lobby.getWhitePlayer());
         Optional<User> blackUserOpt = userService.getUserById(lobby.getBlackPlayer());
@@ -173,28 +288,12 @@ public class GameRestController implements GameStartHandler {
         UUID blackId = blackUserOpt.map(User::getId).orElse(null);
         logger.info("weißer spieler: {}  schwarzer spieler: {}", (whiteId != null ? whiteId.toString() : null), (blackId != null ? blackId.toString() : null) );
 
-        boolean draw = endType == EndType.AGREED_DRAW;
-        boolean success = true;
-        String result = getResultString(endType, message, lobby);
-        String reason = getReasonString(endType);
-        String winner = null;
-        String loser = null;
-
         if (draw) {
             reportDrawStats(whiteId, blackId);
         } else {
-            if (callResignGame) {
-                success = gameManager.resignGame(message.getLobbyId());
-            }
-            winner = getWinnerId(message, lobby);
-            loser = getLoserId(message, lobby);
             reportWinLossStats(message, whiteId, blackId);
         }
-
         updateGameEndInDatabase(message.getLobbyId(), result);
-        gameManager.removeGameByLobbyId(message.getLobbyId());
-
-        sendGameEndMessage(endType, callResignGame, success, draw, winner, loser, lobby, reason, message);
     }
 
     private String getResultString(EndType endType, GameEndMessage message, Lobby lobby) {
@@ -266,16 +365,15 @@ public class GameRestController implements GameStartHandler {
 
     private void sendGameEndMessage(EndType endType, boolean callResignGame, boolean success, boolean draw, String winner, String loser, Lobby lobby, String reason, GameEndMessage message) {
         if (endType == EndType.AGREED_DRAW || !callResignGame || success) {
-            messagingTemplate.convertAndSend(
-                    TOPIC_LOBBY_PREFIX + message.getLobbyId(),
-                    new GameEndResponse(
-                            draw ? null : userService.getUsernameById(winner),
-                            draw ? null : userService.getUsernameById(loser),
-                            draw,
-                            lobby.getLobbyId(),
-                            reason
-                    )
+            GameEndResponse response = new GameEndResponse(
+                    draw ? null : userService.getUsernameById(winner),
+                    draw ? null : userService.getUsernameById(loser),
+                    draw,
+                    lobby.getLobbyId(),
+                    reason
             );
+            messagingTemplate.convertAndSend(TOPIC_LOBBY_PREFIX + message.getLobbyId(), response);
+            spectatorHub.endGame(message.getLobbyId(), response);
         } else {
             messagingTemplate.convertAndSend(
                     TOPIC_LOBBY_PREFIX + message.getLobbyId(),
@@ -408,19 +506,14 @@ public class GameRestController implements GameStartHandler {
             //schicke rematch-antwort mit neuer lobby id
             messagingTemplate.convertAndSend(TOPIC_LOBBY_PREFIX + lobby.getLobbyId() + "/rematch-result", result);
             lobbyService.closeLobby(lobby.getLobbyId());
-            try {
-                Thread.sleep(500); // 500ms Verzögerung, damit Clients subscriben können
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            // Starte das neue Spiel wie bei normalem Start
-            startGame(new StartGameRequest(
+            // Starte das neue Spiel wie bei normalem Start, 500ms verzögert, damit Clients subscriben können
+            StartGameRequest startRequest = new StartGameRequest(
                     newLobbyCode,
                     lobby.getGameTime().name(),
                     userService.getUsernameById(lobby.getWhitePlayer()),
                     userService.getUsernameById(lobby.getBlackPlayer()),
-                    true)
-            );
+                    true);
+            timerService.schedule(() -> startGame(startRequest), 500, TimeUnit.MILLISECONDS);
             logger.info("neuer lobby code: {}", newLobbyCode);
         }else{
             RematchResult result = new RematchResult(lobby.getLobbyId(), response.getResponse(), null);
@@ -469,7 +562,10 @@ public class GameRestController implements GameStartHandler {
         gameEntity.setStartedAt(OffsetDateTime.now());
         gameEntity.setLobbyId(request.getLobbyId());
         gameRepository.save(gameEntity);
-        gameManager.startGame(request.getLobbyId(), gameEntity.getId());
+        gameManager.startGame(request.getLobbyId(), gameEntity.getId(), lobbyInfo(lobby));
+        clockService.startClock(request.getLobbyId(), lobby.getGameTime());
+        // Vollständiges Brett nur einmal beim Start, danach nur noch Deltas (seq = Halbzugnummer)
+        Map<String, PieceInfo> board = getBoardForLobby(request.getLobbyId());
         messagingTemplate.convertAndSend(
                 TOPIC_LOBBY_PREFIX + request.getLobbyId(),
                 Map.of(
@@ -480,7 +576,8 @@ public class GameRestController implements GameStartHandler {
                         "whitePlayer", whitePlayerName,
                         "blackPlayer", blackPlayerName,
                         "randomPlayers", request.isRandomPlayers(),
-                        "board", getBoardForLobby(request.getLobbyId())
+                        "board", board,
+                        "seq", 0
                 )
         );
         return new GameStartResponse(
@@ -490,7 +587,7 @@ public class GameRestController implements GameStartHandler {
                 whitePlayerName,
                 blackPlayerName,
                 TOPIC_LOBBY_PREFIX + request.getLobbyId(),
-                getBoardForLobby(request.getLobbyId()),
+                board,
                 null
         );
     }
@@ -0,0 +1,25 @@
+package org.example.chesspressoserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.chesspressoserver.gamelogic.ChessClock;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+@AllArgsConstructor
+public class ClockState {
+    private long whiteRemainingMillis;
+    private long blackRemainingMillis;
+    private TeamColor running; // null, wenn die Uhr steht
+
+    // Momentaufnahme der Uhr; null ohne Zeitlimit
+    public static ClockState of(ChessClock clock, long now) {
+        if (clock == null) return null;
+        return new ClockState(
+                Math.max(0, TimeUnit.NANOSECONDS.toMillis(clock.remainingNanos(TeamColor.WHITE, now))),
+                Math.max(0, TimeUnit.NANOSECONDS.toMillis(clock.remainingNanos(TeamColor.BLACK, now))),
+                clock.getRunningSide());
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+/**
+ * Schachuhr einer Partie in monotonen Nanosekunden (System.nanoTime).
+ * Wird nur aus der Mailbox der Lobby heraus benutzt und ist deshalb nicht synchronisiert.
+ */
+public class ChessClock {
+
+    // Restzeit je Farbe (Index Bitboards.WHITE/BLACK), Stand bei turnStart
+    private final long[] remaining = new long[2];
+    private int running = -1;
+    private long turnStart;
+
+    public ChessClock(long initialNanos) {
+        this(initialNanos, initialNanos);
+    }
+
+    // Mit unterschiedlichen Restzeiten, z.B. nach Wiederherstellung aus dem Journal
+    public ChessClock(long whiteNanos, long blackNanos) {
+        remaining[Bitboards.WHITE] = whiteNanos;
+        remaining[Bitboards.BLACK] = blackNanos;
+    }
+
+    public void start(TeamColor side, long now) {
+        running = Bitboards.colorIndex(side);
+        turnStart = now;
+    }
+
+    // Nach einem Zug: verbrauchte Zeit abziehen und die Uhr des Gegners starten
+    public void switchSide(long now) {
+        if (running < 0) return;
+        remaining[running] -= now - turnStart;
+        running ^= 1;
+        turnStart = now;
+    }
+
+    public void stop(long now) {
+        if (running < 0) return;
+        remaining[running] -= now - turnStart;
+        running = -1;
+    }
+
+    public long remainingNanos(TeamColor side, long now) {
+        int index = Bitboards.colorIndex(side);
+        return index == running ? remaining[index] - (now - turnStart) : remaining[index];
+    }
+
+    public boolean isFlagged(TeamColor side, long now) {
+        return remainingNanos(side, now) <= 0;
+    }
+
+    // Farbe, deren Uhr läuft, oder null wenn gestoppt
+    public TeamColor getRunningSide() {
+        return running < 0 ? null : Bitboards.colorOf(running);
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.gamelogic.modles.Board;
+import org.example.chesspressoserver.gamelogic.modles.CastlingRights;
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+/**
+ * Einlesen und Erzeugen von Stellungen im FEN-Format (Forsyth-Edwards-Notation).
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {
+    }
+
+    // Erzeugt einen GameController mit der Stellung aus 'fen'
+    public static GameController parse(String fen) {
+        GameController game = new GameController();
+        load(game, fen);
+        return game;
+    }
+
+    // Übernimmt die Stellung aus 'fen' in einen bestehenden GameController
+    public static void load(GameController game, String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("fen must not be null");
+        }
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("fen needs at least 4 fields: " + fen);
+        }
+
+        Board board = parseBoard(parts[0]);
+        TeamColor side = switch (parts[1]) {
+            case "w" -> TeamColor.WHITE;
+            case "b" -> TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("side to move must be w or b: " + parts[1]);
+        };
+
+        CastlingRights rights = new CastlingRights();
+        rights.setWhiteKingSide(parts[2].indexOf('K') >= 0);
+        rights.setWhiteQueenSide(parts[2].indexOf('Q') >= 0);
+        rights.setBlackKingSide(parts[2].indexOf('k') >= 0);
+        rights.setBlackQueenSide(parts[2].indexOf('q') >= 0);
+
+        int epSquare = parts[3].equals("-") ? -1 : Position.of(parts[3]).getSquare();
+        int halfmoveClock = parts.length > 4 ? Integer.parseInt(parts[4]) : 0;
+        int fullmoveNumber = parts.length > 5 ? Integer.parseInt(parts[5]) : 1;
+        if (halfmoveClock < 0 || fullmoveNumber < 1) {
+            throw new IllegalArgumentException("invalid move counters in fen: " + fen);
+        }
+
+        game.loadPosition(board, side, rights, epSquare, halfmoveClock, fullmoveNumber);
+    }
+
+    // Erzeugt den FEN-String der aktuellen Stellung von 'game'
+    public static String toFen(GameController game) {
+        StringBuilder sb = new StringBuilder(90);
+        Board board = game.getBoard();
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                ChessPiece piece = board.getPiece(y, x);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(pieceChar(piece));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (y > 0) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(game.getAktiveTeam() == TeamColor.WHITE ? " w " : " b ");
+
+        CastlingRights rights = game.getCastlingRights();
+        int lengthBefore = sb.length();
+        if (rights.isWhiteKingSide()) sb.append('K');
+        if (rights.isWhiteQueenSide()) sb.append('Q');
+        if (rights.isBlackKingSide()) sb.append('k');
+        if (rights.isBlackQueenSide()) sb.append('q');
+        if (sb.length() == lengthBefore) sb.append('-');
+
+        int ep = game.getEnPassantSquare();
+        sb.append(' ').append(ep < 0 ? "-" : Position.of(ep).toString().toLowerCase());
+
+        // Halbzugzähler = Züge seit dem letzten Bauernzug oder Schlag
+        int halfmoveClock = Math.min(game.getMovesSincePawnMove(), game.getMovesSinceCapture());
+        sb.append(' ').append(halfmoveClock).append(' ').append(game.getFullmoveNumber());
+        return sb.toString();
+    }
+
+    private static Board parseBoard(String placement) {
+        Board board = new Board();
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("fen board needs 8 ranks: " + placement);
+        }
+        for (int i = 0; i < 8; i++) {
+            int y = 7 - i;
+            int x = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    x += c - '0';
+                } else {
+                    if (x > 7) {
+                        throw new IllegalArgumentException("fen rank too long: " + ranks[i]);
+                    }
+                    TeamColor color = Character.isUpperCase(c) ? TeamColor.WHITE : TeamColor.BLACK;
+                    board.setPiece(y, x, new ChessPiece(pieceType(c), color));
+                    x++;
+                }
+            }
+            if (x != 8) {
+                throw new IllegalArgumentException("fen rank must cover 8 files: " + ranks[i]);
+            }
+        }
+        return board;
+    }
+
+    private static char pieceChar(ChessPiece piece) {
+        char c = pieceLetter(piece.getType());
+        return piece.getColour() == TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    // Kleinbuchstabe der Figur wie in FEN/UCI
+    static char pieceLetter(PieceType type) {
+        return switch (type) {
+            case PAWN -> 'p';
+            case KNIGHT -> 'n';
+            case BISHOP -> 'b';
+            case ROOK -> 'r';
+            case QUEEN -> 'q';
+            case KING -> 'k';
+            case NULL -> throw new IllegalStateException("NULL piece on board");
+        };
+    }
+
+    private static PieceType pieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'p' -> PieceType.PAWN;
+            case 'n' -> PieceType.KNIGHT;
+            case 'b' -> PieceType.BISHOP;
+            case 'r' -> PieceType.ROOK;
+            case 'q' -> PieceType.QUEEN;
+            case 'k' -> PieceType.KING;
+            default -> throw new IllegalArgumentException("unknown piece in fen: " + c);
+        };
+    }
+}
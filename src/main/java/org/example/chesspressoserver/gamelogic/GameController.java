@@ -1,13 +1,23 @@
 package org.example.chesspressoserver.gamelogic;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
 import org.example.chesspressoserver.gamelogic.modles.Board;
 import org.example.chesspressoserver.gamelogic.modles.CastlingRights;
+import org.example.chesspressoserver.gamelogic.modles.MoveCodes;
+import org.example.chesspressoserver.gamelogic.modles.MoveGenerator;
+import org.example.chesspressoserver.gamelogic.modles.MoveMasks;
+import org.example.chesspressoserver.gamelogic.modles.UndoInfo;
+import org.example.chesspressoserver.gamelogic.modles.Zobrist;
 import org.example.chesspressoserver.models.gamemodels.*;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,16 +26,12 @@ import java.util.UUID;
 public class GameController {
     private UUID gameId;
 
-    @Setter
     private Board board;
 
-    @Setter
     private TeamColor aktiveTeam;
 
-    @Setter
     private CastlingRights castlingRights = new CastlingRights();
 
-    @Setter
     private Move lastMove;
 
     @Setter
@@ -34,8 +40,51 @@ public class GameController {
     @Setter
     private int movesSinceCapture = 0;   // Zähler für Züge ohne Schlagen
 
+    private int fullmoveNumber = 1;      // Zugnummer wie in FEN, steigt nach jedem Zug von Schwarz
+
     private List<Position> currentAttackers = new ArrayList<>(); // Liste der aktuellen Angreifer
 
+    // Wiederverwendeter Zugpuffer für den MoveGenerator (gepackte int-Züge)
+    @Getter(AccessLevel.NONE)
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    // Schach-, Fesselungs- und Angriffsmasken der aktuellen Stellung (nach jedem Zug neu berechnet)
+    @Getter(AccessLevel.NONE)
+    private final MoveMasks moveMasks = new MoveMasks();
+
+    // Masken für Abfragen zur Seite, die nicht am Zug ist
+    @Getter(AccessLevel.NONE)
+    private final MoveMasks scratchMasks = new MoveMasks();
+
+    // Undo-Stack für makeMove/unmakeMove
+    @Getter(AccessLevel.NONE)
+    private final Deque<UndoInfo> undoStack = new ArrayDeque<>();
+
+    // Gecachte Königsfelder je Farbe (Bitboards.WHITE/BLACK), -1 wenn kein König
+    @Getter(AccessLevel.NONE)
+    private final int[] kingSquares = {-1, -1};
+
+    // En-Passant-Zielfeld nach einem Doppelschritt, sonst -1
+    private int enPassantSquare = -1;
+
+    // Zobrist-Schlüssel der aktuellen Stellung, nutzbar als Cache-Key
+    private long positionKey;
+
+    // Schlüssel aller Stellungen dieser Partie (Index = Halbzug), für Wiederholungen
+    @Getter(AccessLevel.NONE)
+    private long[] keyHistory = new long[128];
+
+    @Getter(AccessLevel.NONE)
+    private int historySize;
+
+    // Schachuhr (null = ohne Zeitlimit), wird in applyMove umgeschaltet
+    @Setter
+    private ChessClock clock;
+
+    // Legale Züge der aktuellen Stellung, einmal pro positionKey aufgebaut
+    @Getter(AccessLevel.NONE)
+    private volatile LegalMoveCache legalMoveCache;
+
     // Konstruktor
     public GameController() {
         this.board = new Board();
@@ -45,6 +94,9 @@ public class GameController {
         board.start();
         this.movesSincePawnMove = 0;
         this.movesSinceCapture = 0;
+        this.fullmoveNumber = 1;
+        syncKingSquares();
+        resetPositionHistory();
     }
 
     public GameController(UUID gameId) {
@@ -52,17 +104,81 @@ public class GameController {
         this.gameId = gameId;
     }
 
+    // Neues Brett setzen: gecachte Königsfelder neu bestimmen, Undo-Historie verwerfen
+    public void setBoard(Board board) {
+        this.board = board;
+        this.undoStack.clear();
+        syncKingSquares();
+        resetPositionHistory();
+    }
+
+    // lastMove setzen und En-Passant-Feld daraus ableiten
+    public void setLastMove(Move lastMove) {
+        this.lastMove = lastMove;
+        this.enPassantSquare = enPassantSquareOf(lastMove);
+        resetPositionHistory();
+    }
+
+    public void setAktiveTeam(TeamColor aktiveTeam) {
+        this.aktiveTeam = aktiveTeam;
+        resetPositionHistory();
+    }
+
+    public void setCastlingRights(CastlingRights castlingRights) {
+        this.castlingRights = castlingRights;
+        resetPositionHistory();
+    }
+
+    // Beliebige Stellung übernehmen (z. B. aus FEN); epSquare -1 = kein En Passant
+    public void loadPosition(Board board, TeamColor aktiveTeam, CastlingRights castlingRights,
+                             int epSquare, int halfmoveClock, int fullmoveNumber) {
+        loadPosition(board, aktiveTeam, castlingRights, epSquare, halfmoveClock, halfmoveClock, fullmoveNumber);
+    }
+
+    // Wie oben, aber mit getrennten Zählern (für Snapshots, die beide Zähler speichern)
+    public void loadPosition(Board board, TeamColor aktiveTeam, CastlingRights castlingRights, int epSquare,
+                             int movesSincePawnMove, int movesSinceCapture, int fullmoveNumber) {
+        this.board = board;
+        this.aktiveTeam = aktiveTeam;
+        this.castlingRights = castlingRights;
+        this.movesSincePawnMove = movesSincePawnMove;
+        this.movesSinceCapture = movesSinceCapture;
+        this.fullmoveNumber = fullmoveNumber;
+        this.undoStack.clear();
+        this.enPassantSquare = epSquare;
+        // lastMove als Doppelschritt rekonstruieren, damit EP-Info konsistent bleibt
+        if (epSquare >= 0) {
+            int forward = (aktiveTeam == TeamColor.WHITE) ? -8 : 8;
+            this.lastMove = new Move(Position.of(epSquare - forward), Position.of(epSquare + forward), PieceType.PAWN);
+        } else {
+            this.lastMove = null;
+        }
+        syncKingSquares();
+        resetPositionHistory();
+    }
+
     // =====================================================================
     // 1) REQUEST: alle LEGALEN Züge für die Figur an startPos
     // =====================================================================
 
+    // Antwort für /possible-moves: fertige Liste aus dem Cache der aktuellen Stellung
     public List<String> getMovesForRequestAsString(final Position position) {
-        List<Position> positions = getMovesForRequest(position);
-        List<String> moves = new ArrayList<>();
-        for(Position p : positions) {
-            moves.add(p.toString());
+        return getLegalMoveCache().getDestinations(position.getSquare());
+    }
+
+    // Cache aller legalen Züge der Seite am Zug; wird nur neu aufgebaut, wenn sich die Stellung geändert hat
+    public LegalMoveCache getLegalMoveCache() {
+        LegalMoveCache cache = legalMoveCache;
+        if (cache == null || cache.getPositionKey() != positionKey) {
+            cache = new LegalMoveCache(positionKey, moveBuffer, generateLegalMoves());
+            legalMoveCache = cache;
         }
-        return moves;
+        return cache;
+    }
+
+    // Prüft einen Client-Zug gegen den Cache der aktuellen Stellung
+    public boolean isLegalMove(final Position start, final Position end) {
+        return getLegalMoveCache().contains(start.getSquare(), end.getSquare());
     }
 
     // Methode für die Requesteingabe, gibt alle möglichen Moves an den Client
@@ -70,65 +186,40 @@ public class GameController {
         ChessPiece piece = board.getPiece(startPos.getY(), startPos.getX());
         if (piece == null || piece.getColour() != aktiveTeam) return List.of();
 
-        TeamColor me = piece.getColour();
-        TeamColor enemy = (me == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        // 1) Pseudo-Moves
-        List<Position> moves = new ArrayList<>(piece.getMove().getPossibleMoves(startPos, board));
-
-        // 2) Sonderfälle
-        if (piece.getType() == PieceType.KING) {
-            moves = getKingMovesWithCastling(startPos, moves);
-        } else {
-            if (piece.getType() == PieceType.PAWN) {
-                addEnPassantMoves(startPos, moves);
-            }
+        // Legale Züge (inkl. Rochade, En Passant, Fesselung, Schach) aus dem Cache der Stellung
+        long targets = getLegalMoveCache().getTargets(startPos.getSquare());
 
-            // Wenn der König im Schach steht
-            Position myKing = board.getKingPosition(me);
-            if (!currentAttackers.isEmpty()) {
-                // Bei Doppelschach kann nur der König ziehen
-                if (currentAttackers.size() > 1) {
-                    moves.clear();
-                    return moves;
-                }
-
-                // Bei einzelnem Schach:
-                Position attacker = currentAttackers.get(0);
+        List<Position> moves = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0) {
+            int sq = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Position.of(sq));
+        }
+        return moves;
+    }
 
-                // 1. Erlaubte Züge sind das Schlagen des Angreifers
-                // 2. Oder Züge die zwischen König und Angreifer liegen (falls möglich)
-                List<Position> validSquares = new ArrayList<>();
-                validSquares.add(attacker); // Angreifer schlagen ist immer erlaubt
+    // Zielfelder aller legalen Züge der Figur auf 'from' als Bitboard (Schnitt mit den gecachten Masken)
+    public long getLegalTargets(int from) {
+        return MoveGenerator.legalTargets(board, moveMasks, castlingRights, enPassantSquare, from);
+    }
 
-                // Prüfe ob es eine direkte Linie zwischen König und Angreifer gibt
-                if (hasClearLine(myKing, attacker)) {
-                    validSquares.addAll(squaresBetweenExclusive(myKing, attacker));
-                }
+    // Schreibt alle legalen Züge der Seite am Zug in den Zugpuffer und gibt die Anzahl zurück
+    public int generateLegalMoves() {
+        return MoveGenerator.generateLegal(board, moveMasks, castlingRights, enPassantSquare, -1L, moveBuffer);
+    }
 
-                // Behalte nur Züge, die entweder den Angreifer schlagen oder blockieren
-                moves.removeIf(move -> !validSquares.contains(move));
-            }
+    // Zug i aus dem Puffer der letzten generateLegalMoves()-Abfrage
+    public int getGeneratedMove(int index) {
+        return moveBuffer[index];
+    }
 
-            // Pin-Prüfung: Wenn die Figur zwischen eigenem König und einem Angreifer steht
-            Position attackerBehindPiece = checkStateAktiveTeam(startPos, piece);
-            if (attackerBehindPiece != null) {
-                // Die Figur ist gepinnt - sie darf sich nur auf der Linie zwischen König und Angreifer bewegen
-                List<Position> corridor = new ArrayList<>();
-                corridor.add(attackerBehindPiece); // Angreifer schlagen ist erlaubt
-                corridor.addAll(squaresBetweenExclusive(startPos, attackerBehindPiece)); // Zwischen Figur und Angreifer
-                corridor.addAll(squaresBetweenExclusive(myKing, startPos)); // Zwischen König und Figur
-
-                // Behalte nur Züge im Korridor
-                moves.removeIf(move -> !corridor.contains(move));
-            }
+    // Masken für 'team': gecachte für die Seite am Zug, sonst frisch berechnet
+    private MoveMasks masksFor(TeamColor team) {
+        if (team == aktiveTeam) {
+            return moveMasks;
         }
-
-        // 3) King-Safety (Simulation)
-        Position myKing = board.getKingPosition(me);
-        moves.removeIf(dst -> leavesKingInCheck(startPos, dst, myKing, enemy));
-
-        return moves;
+        scratchMasks.compute(board, team, kingSquares[Bitboards.colorIndex(team)]);
+        return scratchMasks;
     }
 
     // =====================================================================
@@ -142,467 +233,285 @@ public class GameController {
             throw new IllegalStateException("No active-team piece at start.");
         }
 
-        Move result = new Move(start, end, moving.getType());
+        int from = start.getSquare();
+        int to = end.getSquare();
+        int flags = 0;
 
-        // --- evtl. Normal-Capture am Ziel bestimmen
         ChessPiece targetAtEnd = board.getPiece(end.getY(), end.getX());
         if (targetAtEnd != null && targetAtEnd.getColour() != moving.getColour()) {
-            result.setCaptured(new CapturedInfo(targetAtEnd.getType(), targetAtEnd.getColour(), end));
-        }
-
-        boolean isPawn   = (moving.getType() == PieceType.PAWN);
-        boolean isCastle = (moving.getType() == PieceType.KING) && (Math.abs(end.getX() - start.getX()) == 2);
-        boolean isEP     = false;
-
-        // 50-Züge-Regel: Zähler aktualisieren
-        if (isPawn) {
-            movesSincePawnMove = 0;  // Bauernzug setzt Zähler zurück
-        } else {
-            movesSincePawnMove++;
-        }
-
-        if (targetAtEnd != null || isEP) {
-            movesSinceCapture = 0;   // Schlagen setzt Zähler zurück
-        } else {
-            movesSinceCapture++;
-        }
-
-        // --- En Passant?
-        Position epVictimPos = null;
-        if (isPawn && lastMove != null && lastMove.getPiece() == PieceType.PAWN && targetAtEnd == null) {
-            TeamColor me = moving.getColour();
-            TeamColor enemy = (me == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-            Position from = lastMove.getStart();
-            Position to   = lastMove.getEnd();
-            int enemyTwoFromY = (enemy == TeamColor.WHITE) ? 1 : 6;
-            int enemyTwoToY   = (enemy == TeamColor.WHITE) ? 3 : 4;
-
-            boolean wasDoublePush = (from.getY() == enemyTwoFromY && to.getY() == enemyTwoToY && from.getX() == to.getX());
-            boolean sideBySide    = (start.getY() == to.getY() && Math.abs(start.getX() - to.getX()) == 1);
-            int expectedEPy       = (me == TeamColor.WHITE) ? (to.getY() + 1) : (to.getY() - 1);
-
-            if (wasDoublePush && sideBySide && end.getX() == to.getX() && end.getY() == expectedEPy) {
-                isEP = true;
-                epVictimPos = to;
-                ChessPiece epVictim = board.getPiece(epVictimPos.getY(), epVictimPos.getX());
-                if (epVictim != null) {
-                    result.setCaptured(new CapturedInfo(epVictim.getType(), epVictim.getColour(), epVictimPos));
-                }
-                result.setSpezialMove(SpezialMove.EN_PASSANT);
-            }
+            flags |= MoveCodes.CAPTURE;
         }
 
-        // --- Promotion?
-        boolean isPromotion = false;
-        if (isPawn) {
-            if ((moving.getColour() == TeamColor.WHITE && end.getY() == 7) ||
-                    (moving.getColour() == TeamColor.BLACK && end.getY() == 0)) {
-                isPromotion = true;
-                result.setSpezialMove(SpezialMove.PAWN_PROMOTION);
+        if (moving.getType() == PieceType.PAWN) {
+            if (Math.abs(end.getY() - start.getY()) == 2) {
+                flags |= MoveCodes.DOUBLE_PUSH;
             }
-        }
-
-        if (isCastle) {
-            result.setSpezialMove(SpezialMove.CASTLING);
-        }
-
-        // --- Board mutieren ---
-        board.removePiece(start.getY(), start.getX());                 // 1) Start leeren
-        if (isEP && epVictimPos != null) {                             // 2) EP-Opfer entfernen
-            board.removePiece(epVictimPos.getY(), epVictimPos.getX());
-        }
-        board.setPiece(end.getY(), end.getX(), moving);                // 3) Figur setzen
-
-        // 4) Rochade: Turm mitziehen + Rechte
-        if (isCastle) {
-            int y = start.getY();
-            if (end.getX() == 6) { // kurze
-                ChessPiece rook = board.getPiece(y, 7);
-                board.removePiece(y, 7);
-                board.setPiece(y, 5, rook);
-            } else if (end.getX() == 2) { // lange
-                ChessPiece rook = board.getPiece(y, 0);
-                board.removePiece(y, 0);
-                board.setPiece(y, 3, rook);
+            // En Passant: diagonal auf das (leere) En-Passant-Feld
+            if (to == enPassantSquare && targetAtEnd == null && start.getX() != end.getX()) {
+                flags |= MoveCodes.CAPTURE | MoveCodes.EN_PASSANT;
             }
-            if (aktiveTeam == TeamColor.WHITE) {
-                castlingRights.setWhiteKingSide(false);
-                castlingRights.setWhiteQueenSide(false);
-            } else {
-                castlingRights.setBlackKingSide(false);
-                castlingRights.setBlackQueenSide(false);
+            boolean lastRank = (moving.getColour() == TeamColor.WHITE && end.getY() == 7)
+                    || (moving.getColour() == TeamColor.BLACK && end.getY() == 0);
+            if (lastRank) {
+                // Promotion-Figur (falls Choice null → Default QUEEN)
+                makeMove(MoveCodes.encode(from, to, flags, promotionChoice == null ? PieceType.QUEEN : promotionChoice));
+                switchClock();
+                return lastMove;
             }
+        } else if (moving.getType() == PieceType.KING && Math.abs(end.getX() - start.getX()) == 2) {
+            flags |= MoveCodes.CASTLING;
         }
 
-        // 5) CastlingRights anhand Bewegung/Schläge updaten
-        updateCastlingRightsOnMove(start, end, moving, result.getCaptured());
-
-        // 6) Promotion-Figur ersetzen (falls Choice null → Default QUEEN)
-        if (isPromotion) {
-            if (promotionChoice == null) promotionChoice = PieceType.QUEEN;
-            ChessPiece promoted = new ChessPiece(promotionChoice, moving.getColour());
-            board.setPiece(end.getY(), end.getX(), promoted);
-        }
-
-        // 7) lastMove setzen (inkl. SpezialMove/Captured)
-        lastMove = new Move(start, end, moving.getType(), result.getSpezialMove());
-        lastMove.setCaptured(result.getCaptured());
-
-        // 8) Zugfarbe wechseln
-        aktiveTeam = (aktiveTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        // 9) Aktualisiere die Liste der Angreifer für das neue aktive Team
-        updateAttackers();
-
-        return result;
+        makeMove(MoveCodes.encode(from, to, flags));
+        switchClock();
+        return lastMove;
     }
 
-    // =====================================================================
-    // Helpers: König, EP, King-Safety, Attacks, Geometrie, CastlingRights
-    // =====================================================================
-
-    // Filtert King-Pseudo-Moves (keine angegriffenen Felder) + ergänzt Rochaden.
-    private List<Position> getKingMovesWithCastling(Position start, List<Position> pseudo) {
-        List<Position> legal = new ArrayList<>();
-        TeamColor me = aktiveTeam;
-        TeamColor enemy = (me == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        // Normale King-Moves: Ziel darf nicht angegriffen sein
-        for (Position p : pseudo) {
-            if (!isSquareAttackedBy(enemy, p)) legal.add(p);
-        }
-
-        // Rochade (Startfeld darf nicht angegriffen sein)
-        if (!isSquareAttackedBy(enemy, start)) {
-            int y = start.getY();
-            int x = start.getX();
-
-            // kurze: Ziel (6,y); leer: (5,y),(6,y); Rook (7,y)
-            boolean canK = (me == TeamColor.WHITE) ? castlingRights.isWhiteKingSide() : castlingRights.isBlackKingSide();
-            if (canK
-                    && board.checkEmpty(y, 5) && board.checkEmpty(y, 6)
-                    && hasClearLine(new Position(x, y), new Position(7, y))) {
-                ChessPiece rook = board.getPiece(y, 7);
-                if (rook != null && rook.getType() == PieceType.ROOK && rook.getColour() == me) {
-                    if (!isSquareAttackedBy(enemy, new Position(5, y))
-                            && !isSquareAttackedBy(enemy, new Position(6, y))) {
-                        legal.add(new Position(6, y));
-                    }
-                }
-            }
-
-            // lange: Ziel (2,y); leer: (1,y),(2,y),(3,y); Rook (0,y)
-            boolean canQ = (me == TeamColor.WHITE) ? castlingRights.isWhiteQueenSide() : castlingRights.isBlackQueenSide();
-            if (canQ
-                    && board.checkEmpty(y, 1) && board.checkEmpty(y, 2) && board.checkEmpty(y, 3)
-                    && hasClearLine(new Position(x, y), new Position(0, y))) {
-                ChessPiece rook = board.getPiece(y, 0);
-                if (rook != null && rook.getType() == PieceType.ROOK && rook.getColour() == me) {
-                    if (!isSquareAttackedBy(enemy, new Position(3, y))
-                            && !isSquareAttackedBy(enemy, new Position(2, y))) {
-                        legal.add(new Position(2, y));
-                    }
-                }
-            }
+    private void switchClock() {
+        if (clock != null) {
+            clock.switchSide(System.nanoTime());
         }
-        return legal;
     }
 
-    // Ergänzt En-Passant-Ziel (falls erlaubt) zu den Pseudo-Bauernzügen.
-    private void addEnPassantMoves(Position start, List<Position> outMoves) {
-        if (lastMove == null) return;
+    // true, wenn die Zeit der Seite am Zug abgelaufen ist
+    public boolean isFlagFallen() {
+        return clock != null && clock.isFlagged(aktiveTeam, System.nanoTime());
+    }
 
-        ChessPiece self = board.getPiece(start.getY(), start.getX());
-        if (self == null || self.getType() != PieceType.PAWN) return;
+    // Führt einen gepackten Zug aus und legt den alten Zustand auf den Undo-Stack
+    public void makeMove(int move) {
+        int from = MoveCodes.from(move);
+        int to = MoveCodes.to(move);
+        ChessPiece moving = board.getPiece(Bitboards.rank(from), Bitboards.file(from));
+        if (moving == null || moving.getColour() != aktiveTeam) {
+            throw new IllegalStateException("No active-team piece at start.");
+        }
 
-        TeamColor me = self.getColour();
-        TeamColor enemy = (me == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        int us = Bitboards.colorIndex(aktiveTeam);
+        int capturedSquare = MoveCodes.isEnPassant(move) ? (us == Bitboards.WHITE ? to - 8 : to + 8) : to;
+        ChessPiece captured = board.getPiece(Bitboards.rank(capturedSquare), Bitboards.file(capturedSquare));
+        if (captured != null && captured.getColour() == aktiveTeam) {
+            captured = null; // eigene Figur wird nicht geschlagen
+        }
 
-        if (lastMove.getPiece() != PieceType.PAWN) return;
+        int oldCastlingBits = castlingRights.toBits();
+        undoStack.push(new UndoInfo(move, moving, captured, capturedSquare, oldCastlingBits,
+                enPassantSquare, movesSincePawnMove, movesSinceCapture, kingSquares[us], lastMove, positionKey));
 
-        Position from = lastMove.getStart();
-        Position to   = lastMove.getEnd();
+        TeamColor enemy = (aktiveTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        long key = positionKey ^ Zobrist.enPassant(board, aktiveTeam, enPassantSquare);
 
-        ChessPiece enemyPawnAtTo = board.getPiece(to.getY(), to.getX());
-        if (enemyPawnAtTo == null || enemyPawnAtTo.getType() != PieceType.PAWN || enemyPawnAtTo.getColour() != enemy) {
-            return;
+        // --- Board mutieren ---
+        board.removePiece(Bitboards.rank(from), Bitboards.file(from));                   // 1) Start leeren
+        if (MoveCodes.isEnPassant(move)) {                                               // 2) EP-Opfer entfernen
+            board.removePiece(Bitboards.rank(capturedSquare), Bitboards.file(capturedSquare));
         }
+        PieceType promotion = MoveCodes.promotion(move);
+        ChessPiece placed = (promotion != null) ? new ChessPiece(promotion, aktiveTeam) : moving;
+        board.setPiece(Bitboards.rank(to), Bitboards.file(to), placed);                  // 3) Figur setzen
 
-        int enemyTwoFromY = (enemy == TeamColor.WHITE) ? 1 : 6;
-        int enemyTwoToY   = (enemy == TeamColor.WHITE) ? 3 : 4;
+        if (MoveCodes.isCastling(move)) {                                                // 4) Rochade: Turm mitziehen
+            moveCastlingRook(to, false);
+            boolean kingSide = Bitboards.file(to) == 6;
+            key ^= Zobrist.piece(aktiveTeam, PieceType.ROOK, kingSide ? to + 1 : to - 2)
+                    ^ Zobrist.piece(aktiveTeam, PieceType.ROOK, kingSide ? to - 1 : to + 1);
+        }
 
-        if (from.getY() != enemyTwoFromY || to.getY() != enemyTwoToY || from.getX() != to.getX()) {
-            return; // kein gegnerischer Doppelzug
+        key ^= Zobrist.piece(aktiveTeam, moving.getType(), from)
+                ^ Zobrist.piece(aktiveTeam, placed.getType(), to);
+        if (captured != null) {
+            key ^= Zobrist.piece(enemy, captured.getType(), capturedSquare);
         }
 
-        // eigener Bauer muss seitlich (x±1) neben dem Ziel stehen (gleiche Reihe)
-        if (start.getY() != to.getY()) return;
-        if (Math.abs(start.getX() - to.getX()) != 1) return;
+        // 50-Züge-Regel: Zähler aktualisieren
+        movesSincePawnMove = (moving.getType() == PieceType.PAWN) ? 0 : movesSincePawnMove + 1;
+        movesSinceCapture = (captured != null) ? 0 : movesSinceCapture + 1;
 
-        // EP-Ziel ist das übersprungene Feld
-        int epTargetY = (me == TeamColor.WHITE) ? (to.getY() + 1) : (to.getY() - 1);
-        int epTargetX = to.getX();
+        // Rochaderechte: jede Bewegung von/auf König- oder Turmfeld streicht die betroffenen Rechte
+        castlingRights.restore(castlingRights.toBits()
+                & CastlingRights.keptWhenTouched(from) & CastlingRights.keptWhenTouched(to));
 
-        if (epTargetX < 0 || epTargetX > 7 || epTargetY < 0 || epTargetY > 7) return;
-        if (!board.checkEmpty(epTargetY, epTargetX)) return;
+        enPassantSquare = (MoveCodes.flags(move) & MoveCodes.DOUBLE_PUSH) != 0 ? (from + to) / 2 : -1;
 
-        outMoves.add(new Position(epTargetX, epTargetY));
-    }
-
-    // Simuliert (start→dst) und prüft, ob danach der eigene König im Schach ist. EP wird korrekt simuliert.
-    private boolean leavesKingInCheck(Position start, Position dst, Position myKing, TeamColor enemy) {
-        ChessPiece moving = board.getPiece(start.getY(), start.getX());
-        ChessPiece captured = board.getPiece(dst.getY(), dst.getX());
-
-        // EP-Erkennung (dst ist EP-Zielfeld)
-        boolean isEP = false;
-        ChessPiece epCaptured = null;
-        Position epVictimPos = null;
-        if (moving != null && moving.getType() == PieceType.PAWN && lastMove != null && lastMove.getPiece() == PieceType.PAWN) {
-            Position to = lastMove.getEnd();
-            int expectedEPy = (moving.getColour() == TeamColor.WHITE) ? (to.getY() + 1) : (to.getY() - 1);
-            if (dst.getX() == to.getX() && dst.getY() == expectedEPy
-                    && start.getY() == to.getY() && Math.abs(start.getX() - to.getX()) == 1) {
-                isEP = true;
-                epVictimPos = to;
-            }
+        key ^= Zobrist.castling(oldCastlingBits) ^ Zobrist.castling(castlingRights.toBits());
+        key ^= Zobrist.enPassant(board, enemy, enPassantSquare) ^ Zobrist.sideToMove();
+        pushPositionKey(key);
+        if (moving.getType() == PieceType.KING) {
+            kingSquares[us] = to;
         }
 
-        // do move
-        board.removePiece(start.getY(), start.getX());
-        if (isEP && epVictimPos != null) {
-            epCaptured = board.getPiece(epVictimPos.getY(), epVictimPos.getX());
-            board.removePiece(epVictimPos.getY(), epVictimPos.getX());
+        // lastMove setzen (inkl. SpezialMove/Captured)
+        SpezialMove spezialMove = null;
+        if (MoveCodes.isEnPassant(move)) spezialMove = SpezialMove.EN_PASSANT;
+        else if (promotion != null) spezialMove = SpezialMove.PAWN_PROMOTION;
+        else if (MoveCodes.isCastling(move)) spezialMove = SpezialMove.CASTLING;
+        lastMove = new Move(Position.of(from), Position.of(to), moving.getType(), spezialMove);
+        if (captured != null) {
+            lastMove.setCaptured(new CapturedInfo(captured.getType(), captured.getColour(), Position.of(capturedSquare)));
         }
-        board.setPiece(dst.getY(), dst.getX(), moving);
-
-        Position kingPos = (moving != null && moving.getType() == PieceType.KING) ? dst : myKing;
-        boolean inCheck = isSquareAttackedBy(enemy, kingPos);
 
-        // unmove
-        board.setPiece(start.getY(), start.getX(), moving);
-        board.setPiece(dst.getY(), dst.getX(), captured);
-        if (isEP && epVictimPos != null) {
-            board.setPiece(epVictimPos.getY(), epVictimPos.getX(), epCaptured);
+        // Zugfarbe wechseln und Angreifer für das neue aktive Team bestimmen
+        if (aktiveTeam == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
-
-        return inCheck;
+        aktiveTeam = enemy;
+        updateAttackers();
     }
 
-    // true, wenn 'sq' von 'attacker' angegriffen wird (Bauern: NUR Diagonalen).
-    public boolean isSquareAttackedBy(TeamColor attacker, Position sq) {
-        int sx = sq.getX(), sy = sq.getY();
-
-        // Pawn (diagonals only)
-        int pDir = (attacker == TeamColor.WHITE) ? -1 : +1; // aus Sicht des Angreifers
-        int py = sy + pDir;
-        if (py >= 0 && py < 8) {
-            if (sx - 1 >= 0) {
-                ChessPiece p = board.getPiece(py, sx - 1);
-                if (p != null && p.getColour() == attacker && p.getType() == PieceType.PAWN) return true;
-            }
-            if (sx + 1 < 8) {
-                ChessPiece p = board.getPiece(py, sx + 1);
-                if (p != null && p.getColour() == attacker && p.getType() == PieceType.PAWN) return true;
-            }
+    // Nimmt den letzten mit makeMove ausgeführten Zug zurück
+    public void unmakeMove() {
+        UndoInfo undo = undoStack.poll();
+        if (undo == null) {
+            throw new IllegalStateException("No move to take back.");
+        }
+        int move = undo.getMove();
+        int from = MoveCodes.from(move);
+        int to = MoveCodes.to(move);
+        ChessPiece moved = undo.getMoved();
+        aktiveTeam = moved.getColour();
+        if (aktiveTeam == TeamColor.BLACK) {
+            fullmoveNumber--;
         }
 
-        // Knight
-        int[][] kJumps = {{2,1},{2,-1},{1,2},{-1,2},{-2,1},{-2,-1},{1,-2},{-1,-2}};
-        for (int[] d : kJumps) {
-            int x = sx + d[0], y = sy + d[1];
-            if (x<0||x>7||y<0||y>7) continue;
-            ChessPiece p = board.getPiece(y, x);
-            if (p != null && p.getColour() == attacker && p.getType() == PieceType.KNIGHT) return true;
-        }
-
-        // King (adjacent)
-        int[][] nbr = {{1,0},{-1,0},{0,1},{0,-1},{1,1},{1,-1},{-1,1},{-1,-1}};
-        for (int[] d : nbr) {
-            int x = sx + d[0], y = sy + d[1];
-            if (x<0||x>7||y<0||y>7) continue;
-            ChessPiece p = board.getPiece(y, x);
-            if (p != null && p.getColour() == attacker && p.getType() == PieceType.KING) return true;
-        }
-
-        // Sliders (Rook/Bishop/Queen)
-        int[][] rays = {
-                { 1,0},{-1,0},{0,1},{0,-1},   // orthogonal → R/Q
-                { 1,1},{ 1,-1},{-1,1},{-1,-1} // diagonal  → B/Q
-        };
-        for (int[] d : rays) {
-            int x = sx + d[0], y = sy + d[1];
-            boolean ortho = (d[0] == 0 || d[1] == 0);
-            while (x>=0 && x<8 && y>=0 && y<8) {
-                if (!board.checkEmpty(y, x)) {
-                    ChessPiece p = board.getPiece(y, x);
-                    if (p != null && p.getColour() == attacker) {
-                        if (ortho && (p.getType() == PieceType.ROOK || p.getType() == PieceType.QUEEN)) return true;
-                        if (!ortho && (p.getType() == PieceType.BISHOP || p.getType() == PieceType.QUEEN)) return true;
-                    }
-                    break; // erste Figur blockiert
-                }
-                x += d[0]; y += d[1];
-            }
+        if (MoveCodes.isCastling(move)) {
+            moveCastlingRook(to, true);
         }
-        return false;
-    }
+        board.removePiece(Bitboards.rank(to), Bitboards.file(to));
+        if (undo.getCaptured() != null) {
+            int sq = undo.getCapturedSquare();
+            board.setPiece(Bitboards.rank(sq), Bitboards.file(sq), undo.getCaptured());
+        }
+        board.setPiece(Bitboards.rank(from), Bitboards.file(from), moved);
 
-    // Prüft reine Geometrie (Linie/Diagonale) ohne Blocker (Zielfeld egal).
-    private boolean hasClearLine(Position from, Position to) {
-        if (from.getX() == to.getX() && from.getY() == to.getY()) return false;
+        castlingRights.restore(undo.getCastlingBits());
+        enPassantSquare = undo.getEnPassantSquare();
+        movesSincePawnMove = undo.getMovesSincePawnMove();
+        movesSinceCapture = undo.getMovesSinceCapture();
+        kingSquares[Bitboards.colorIndex(aktiveTeam)] = undo.getKingSquare();
+        lastMove = undo.getLastMove();
+        positionKey = undo.getPositionKey();
+        historySize--;
 
-        boolean aligned =
-                (from.getX() == to.getX()) ||
-                        (from.getY() == to.getY()) ||
-                        (Math.abs(to.getX() - from.getX()) == Math.abs(to.getY() - from.getY()));
-        if (!aligned) return false;
+        updateAttackers();
+    }
 
-        int dx = Integer.compare(to.getX(), from.getX());
-        int dy = Integer.compare(to.getY(), from.getY());
+    // Anzahl der Züge, die mit unmakeMove zurückgenommen werden können
+    public int getUndoDepth() {
+        return undoStack.size();
+    }
 
-        int x = from.getX() + dx;
-        int y = from.getY() + dy;
-        while (x != to.getX() || y != to.getY()) {
-            if (!board.checkEmpty(y, x)) return false;
-            x += dx; y += dy;
-        }
-        return true;
+    // Anzahl der gespielten Halbzüge (aus Zugnummer und Seite am Zug), dient als Zugnummer für die DB
+    public int getPlyCount() {
+        return 2 * (fullmoveNumber - 1) + (aktiveTeam == TeamColor.BLACK ? 1 : 0);
     }
 
-    // Gibt an, ob die Figur bei 'pos' geometrisch mit dem EIGENEN König verbunden ist (Linie/Diag ohne Blocker).
-    private boolean checkKingConnection(Position pos) {
-        Position king = board.getKingPosition(aktiveTeam);
-        return king != null && hasClearLine(pos, king);
+    // Gepackter Code (MoveCodes) des zuletzt ausgeführten Zugs, 0 wenn keiner
+    public int getLastMoveCode() {
+        UndoInfo undo = undoStack.peek();
+        return undo == null ? 0 : undo.getMove();
     }
 
-    //Überprüft, ob durch das Bewegen der Figur ein Schach entstehen könnte
-    private Position checkStateAktiveTeam(Position startPos, ChessPiece startPiece) {
-        TeamColor enemyTeam = (aktiveTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-        Position kingPosition = board.getKingPosition(aktiveTeam);
+    // Felder, die der letzte Zug verändert hat (Start, Ziel, geschlagener En-Passant-Bauer, Rochadeturm).
+    // out muss Platz für 4 Felder haben; Rückgabe ist die Anzahl
+    public int getChangedSquares(int[] out) {
+        UndoInfo undo = undoStack.peek();
+        if (undo == null) return 0;
+        int move = undo.getMove();
+        int to = MoveCodes.to(move);
+        int n = 0;
+        out[n++] = MoveCodes.from(move);
+        out[n++] = to;
+        if (MoveCodes.isEnPassant(move)) {
+            out[n++] = undo.getCapturedSquare();
+        } else if (MoveCodes.isCastling(move)) {
+            boolean kingSide = Bitboards.file(to) == 6;
+            out[n++] = kingSide ? to + 1 : to - 2;
+            out[n++] = kingSide ? to - 1 : to + 1;
+        }
+        return n;
+    }
 
-        if (kingPosition != null && kingPosition.equals(startPos)) return null;
+    // Turm bei Rochade versetzen (kingTo = Zielfeld des Königs), back = Rücknahme
+    private void moveCastlingRook(int kingTo, boolean back) {
+        boolean kingSide = Bitboards.file(kingTo) == 6;
+        int rookFrom = kingSide ? kingTo + 1 : kingTo - 2;
+        int rookTo = kingSide ? kingTo - 1 : kingTo + 1;
+        if (back) {
+            int tmp = rookFrom;
+            rookFrom = rookTo;
+            rookTo = tmp;
+        }
+        ChessPiece rook = board.getPiece(Bitboards.rank(rookFrom), Bitboards.file(rookFrom));
+        board.removePiece(Bitboards.rank(rookFrom), Bitboards.file(rookFrom));
+        board.setPiece(Bitboards.rank(rookTo), Bitboards.file(rookTo), rook);
+    }
 
-        board.removePiece(startPos.getY(), startPos.getX()); // temporär entfernen
+    // Schlüssel komplett neu berechnen und Historie auf die aktuelle Stellung zurücksetzen
+    private void resetPositionHistory() {
+        if (board == null || aktiveTeam == null || castlingRights == null) return;
+        historySize = 0;
+        legalMoveCache = null;
+        pushPositionKey(Zobrist.compute(board, aktiveTeam, castlingRights.toBits(), enPassantSquare));
+        updateAttackers();
+    }
 
-        Position result = null;
-        outer:
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board.getPiece(row, col);
-                if (piece == null || piece.getColour() != enemyTeam) continue;
+    private void pushPositionKey(long key) {
+        if (historySize == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, historySize * 2);
+        }
+        keyHistory[historySize++] = key;
+        positionKey = key;
+    }
 
-                switch (piece.getType()) {
-                    case QUEEN, ROOK, BISHOP -> {
-                        Position pos = new Position(col, row);
-                        List<Position> moves = piece.getMove().getPossibleMoves(pos, board);
-                        if (kingPosition != null && moves.contains(kingPosition)) {
-                            result = pos;
-                            break outer;
-                        }
-                    }
-                    default -> {}
-                }
+    // Wie oft die aktuelle Stellung bisher aufgetreten ist (inkl. jetzt). Gleiche Stellungen
+    // sind nur seit dem letzten Bauernzug/Schlag möglich und haben dieselbe Seite am Zug.
+    public int getRepetitionCount() {
+        int reversible = Math.min(Math.min(movesSincePawnMove, movesSinceCapture), historySize - 1);
+        int count = 1;
+        for (int i = historySize - 3; i >= historySize - 1 - reversible; i -= 2) {
+            if (keyHistory[i] == positionKey) {
+                count++;
             }
         }
-        board.setPiece(startPos.getY(), startPos.getX(), startPiece); // zurücksetzen
-        return result;
+        return count;
     }
 
-    // Felder zwischen a und b (exkl. Endpunkte) – nur bei Kollinearität (Linie/Diag).
-    private List<Position> squaresBetweenExclusive(Position a, Position b) {
-        List<Position> out = new ArrayList<>();
-        int ax = a.getX(), ay = a.getY();
-        int bx = b.getX(), by = b.getY();
-
-        boolean aligned =
-                (ax == bx) || (ay == by) || (Math.abs(bx - ax) == Math.abs(by - ay));
-        if (!aligned) return out;
-
-        int dx = Integer.compare(bx, ax);
-        int dy = Integer.compare(by, ay);
-
-        int x = ax + dx, y = ay + dy;
-        while (x != bx || y != by) {
-            out.add(new Position(x, y));
-            x += dx; y += dy;
-        }
-        return out;
+    // Königsfelder aus den Bitboards neu bestimmen
+    private void syncKingSquares() {
+        kingSquares[Bitboards.WHITE] = Bitboards.lsb(board.getPieces(TeamColor.WHITE, PieceType.KING));
+        kingSquares[Bitboards.BLACK] = Bitboards.lsb(board.getPieces(TeamColor.BLACK, PieceType.KING));
     }
 
-    // Liefert Korridor zwischen eigener Figur und Angreifer (exkl. start, inkl. Angreifer), sonst leer.
-    private List<Position> getKingConnectionPostion(Position startPos) {
-        ChessPiece startPiece = board.getPiece(startPos.getY(), startPos.getX());
-        if (startPiece == null) return List.of();
+    // =====================================================================
+    // Helpers: König, EP, King-Safety, Attacks, Geometrie, CastlingRights
+    // =====================================================================
+
+    // En-Passant-Zielfeld, wenn 'move' ein Bauern-Doppelschritt war, sonst -1
+    private static int enPassantSquareOf(Move move) {
+        if (move == null || move.getPiece() != PieceType.PAWN) return -1;
 
-        Position attackerPos = checkStateAktiveTeam(startPos, startPiece);
-        if (attackerPos == null) return List.of();
+        Position from = move.getStart();
+        Position to   = move.getEnd();
+        if (from.getX() != to.getX() || Math.abs(to.getY() - from.getY()) != 2) return -1;
 
-        List<Position> corridor = squaresBetweenExclusive(startPos, attackerPos);
-        corridor.add(attackerPos);
-        return corridor;
+        return Bitboards.square(to.getX(), (from.getY() + to.getY()) / 2);
     }
 
-    // Aktualisiert Rochaderechte nach Bewegung/Schlag eines Königs/Turms (inkl. geschlagenem Gegner-Turm).
-    private void updateCastlingRightsOnMove(Position start, Position end, ChessPiece moving, CapturedInfo captured) {
-        if (moving.getColour() == TeamColor.WHITE) {
-            if (moving.getType() == PieceType.KING) {
-                castlingRights.setWhiteKingSide(false);
-                castlingRights.setWhiteQueenSide(false);
-            } else if (moving.getType() == PieceType.ROOK) {
-                if (start.getY() == 0 && start.getX() == 0) castlingRights.setWhiteQueenSide(false); // A1
-                if (start.getY() == 0 && start.getX() == 7) castlingRights.setWhiteKingSide(false);  // H1
-            }
-        } else {
-            if (moving.getType() == PieceType.KING) {
-                castlingRights.setBlackKingSide(false);
-                castlingRights.setBlackQueenSide(false);
-            } else if (moving.getType() == PieceType.ROOK) {
-                if (start.getY() == 7 && start.getX() == 0) castlingRights.setBlackQueenSide(false); // A8
-                if (start.getY() == 7 && start.getX() == 7) castlingRights.setBlackKingSide(false);  // H8
-            }
-        }
-
-        if (captured != null && captured.getType() == PieceType.ROOK) {
-            TeamColor victim = captured.getColour();
-            Position vpos = captured.getPosition();
-            if (victim == TeamColor.WHITE) {
-                if (vpos.getY() == 0 && vpos.getX() == 0) castlingRights.setWhiteQueenSide(false); // A1
-                if (vpos.getY() == 0 && vpos.getX() == 7) castlingRights.setWhiteKingSide(false);  // H1
-            } else {
-                if (vpos.getY() == 7 && vpos.getX() == 0) castlingRights.setBlackQueenSide(false); // A8
-                if (vpos.getY() == 7 && vpos.getX() == 7) castlingRights.setBlackKingSide(false);  // H8
-            }
-        }
+    // true, wenn 'sq' von 'attacker' angegriffen wird (Bauern: NUR Diagonalen).
+    public boolean isSquareAttackedBy(TeamColor attacker, Position sq) {
+        return board.attackersTo(sq.getSquare(), attacker) != 0;
     }
 
-    // Nach jedem Zug die Liste der Angreifer aktualisieren
+    // Nach jedem Zug Masken (Schach, Fesselungen, Angriffe) und die Liste der Angreifer aktualisieren
     public void updateAttackers() {
+        moveMasks.compute(board, aktiveTeam, kingSquares[Bitboards.colorIndex(aktiveTeam)]);
+
         currentAttackers.clear();
-        Position kingPos = board.getKingPosition(aktiveTeam);
-
-        if (kingPos != null) {
-            TeamColor enemy = (aktiveTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-            // Durchsuche alle Felder nach gegnerischen Figuren
-            for(int y = 0; y < 8; y++) {
-                for(int x = 0; x < 8; x++) {
-                    ChessPiece piece = board.getPiece(y, x);
-
-                    // Wenn eine gegnerische Figur gefunden wurde
-                    if(piece != null && piece.getColour() == enemy) {
-                        // Prüfe die möglichen Züge dieser Figur
-                        Position piecePos = new Position(x, y);
-                        List<Position> moves = piece.getMove().getPossibleMoves(piecePos, board);
-
-                        // Wenn die Figur den König in ihren möglichen Zügen hat
-                        if(moves != null && moves.contains(kingPos)) {
-                            currentAttackers.add(piecePos);
-                        }
-                    }
-                }
-            }
+        long attackers = moveMasks.getCheckers();
+        while (attackers != 0) {
+            int sq = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            currentAttackers.add(Position.of(sq));
         }
     }
 
@@ -622,73 +531,13 @@ public class GameController {
             return false;
         }
 
-        // 1. Prüfe ob der König sich bewegen kann
-        List<String> kingMoves = getMovesForRequestAsString(kingPos);
-        if (kingMoves != null && !kingMoves.isEmpty()) {
-            return false; // König kann sich bewegen, kein Matt
-        }
-
-        // 2. Prüfe ob der König überhaupt im Schach steht
+        // Nur im Schach kann es Matt sein
         if (currentAttackers.isEmpty()) {
-            return false; // König steht nicht im Schach
-        }
-
-        // 3. Bei Doppelschach und der König kann sich nicht bewegen -> Matt
-        if (currentAttackers.size() > 1) {
-            return true;
-        }
-
-        // 4. Bei einfachem Schach: Kann eine andere Figur helfen?
-        Position attacker = currentAttackers.get(0);
-        TeamColor enemy = (defendingTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        // Prüfe alle verteidigenden Figuren
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                Position defenderPos = new Position(x, y);
-                ChessPiece piece = board.getPiece(y, x);
-
-                // Nur eigene Figuren außer dem König
-                if (piece != null && piece.getColour() == defendingTeam && !defenderPos.equals(kingPos)) {
-                    // Hole mögliche Züge der Figur
-                    List<Position> moves = getMovesForRequest(defenderPos);
-
-                    // Kann der Angreifer geschlagen werden?
-                    if (moves.contains(attacker)) {
-                        return false;
-                    }
-
-                    // Kann sich eine Figur dazwischen stellen?
-                    if (hasClearLine(kingPos, attacker)) { // Nur wenn Angreifer und König auf einer Linie
-                        List<Position> blockingSquares = squaresBetweenExclusive(kingPos, attacker);
-                        for (Position blockPos : blockingSquares) {
-                            if (moves.contains(blockPos)) {
-                                return false; // Eine Figur kann blocken
-                            }
-                        }
-                    }
-                }
-            }
+            return false;
         }
 
-        // Wenn weder der König sich bewegen noch eine andere Figur helfen kann -> Matt
-        return true;
-    }
-
-    // Prüft, ob pos zwischen start und end liegt (exkl. start und end), nur für gerade Linien (horizontal, vertikal, diagonal).
-    private boolean isPositionBetween(Position pos, Position start, Position end) {
-        // Vereinfachte Implementierung für gerade Linien (horizontal, vertikal, diagonal)
-        int dx = Integer.compare(end.getX() - start.getX(), 0);
-        int dy = Integer.compare(end.getY() - start.getY(), 0);
-
-        Position current = new Position(start.getX() + dx, start.getY() + dy);
-        while(!current.equals(end)) {
-            if(current.equals(pos)) {
-                return true;
-            }
-            current = new Position(current.getX() + dx, current.getY() + dy);
-        }
-        return false;
+        // Matt, wenn keine Figur (König eingeschlossen) einen legalen Zug hat
+        return noMovesLeft(defendingTeam);
     }
 
     // =====================================================================
@@ -697,44 +546,42 @@ public class GameController {
 
     //Gibt zurück, ob eine Patt-Situation vorliegt
     public boolean isStalemate(TeamColor team) {
+        return getDrawReason(team) != null;
+    }
+
+    // Grund für ein Remis in der aktuellen Stellung oder null
+    public DrawReason getDrawReason(TeamColor team) {
+        // Wiederholungen gelten auch, wenn der König im Schach steht
+        int repetitions = getRepetitionCount();
+        if (repetitions >= 5) return DrawReason.FIVEFOLD_REPETITION;
+        if (repetitions >= 3) return DrawReason.THREEFOLD_REPETITION;
+
         // Ein Patt liegt vor, wenn der König nicht im Schach steht und das aktive Team keine legalen Züge mehr hat
-        Position kingPos = board.getKingPosition(team);
-        if (kingPos == null) return false;
+        int kingSq = kingSquares[Bitboards.colorIndex(team)];
+        if (kingSq < 0) return null;
 
         // Prüfe ob der König im Schach steht
-        TeamColor enemy = (team == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-        if (isSquareAttackedBy(enemy, kingPos)) {
-            return false; // König steht im Schach, also kein Patt
+        if (masksFor(team).inCheck()) {
+            return null; // König steht im Schach, also kein Patt
         }
 
         if (noMovesLeft(team)) {
-            return true; // Kein legaler Zug mehr, also Patt
+            return DrawReason.STALEMATE; // Kein legaler Zug mehr, also Patt
         }
         if (isFiftyMoveRule()){
-            return true; // 50-Züge-Regel greift, also Patt
+            return DrawReason.FIFTY_MOVE_RULE; // 50-Züge-Regel greift
         }
         if (noCheckPossible()){
-            return true; // Kein Schachmatt mehr möglich, also Patt
+            return DrawReason.INSUFFICIENT_MATERIAL; // Kein Schachmatt mehr möglich
         }
-        return false; // Sonst kein Patt
+        return null; // Sonst kein Remis
     }
 
 
     // Prüft, ob das aktive Team keine legalen Züge mehr hat (Patt-Situation)
     public boolean noMovesLeft(TeamColor team) {
-        for(int x = 0; x < 8; x++) {
-            for(int y = 0; y < 8; y++) {
-                Position pos = new Position(x, y);
-                ChessPiece piece = board.getPiece(y, x);
-                if(piece != null && piece.getColour() == team) {
-                    List<String> possibleMoves = getMovesForRequestAsString(pos);
-                    if(!possibleMoves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        int ep = (team == aktiveTeam) ? enPassantSquare : -1;
+        return !MoveGenerator.hasLegalMove(board, masksFor(team), ep);
     }
 
     // Prüft ob die 50-Züge-Regel greift (50 Züge ohne Bauernzug und ohne Schlagen)
@@ -798,14 +645,9 @@ public class GameController {
     private int[] countPieces(TeamColor color) {
         // Index entspricht PieceType.ordinal(): PAWN,KNIGHT,BISHOP,ROOK,QUEEN,KING
         int[] pieces = new int[6];
-
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board.getPiece(y, x);
-                if (piece != null && piece.getColour() == color) {
-                    pieces[piece.getType().ordinal()]++;
-                }
-            }
+        for (PieceType type : new PieceType[]{PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+                PieceType.ROOK, PieceType.QUEEN, PieceType.KING}) {
+            pieces[type.ordinal()] = Bitboards.count(board.getPieces(color, type));
         }
         return pieces;
     }
@@ -852,16 +694,7 @@ public class GameController {
 
     // Findet die Position des Läufers einer Farbe
     private Position findBishop(TeamColor color) {
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board.getPiece(y, x);
-                if (piece != null &&
-                    piece.getColour() == color &&
-                    piece.getType() == PieceType.BISHOP) {
-                    return new Position(x, y);
-                }
-            }
-        }
-        return null;
+        int sq = Bitboards.lsb(board.getPieces(color, PieceType.BISHOP));
+        return sq < 0 ? null : Position.of(sq);
     }
 }
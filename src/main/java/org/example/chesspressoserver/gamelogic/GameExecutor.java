@@ -0,0 +1,127 @@
+package org.example.chesspressoserver.gamelogic;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Führt alle Befehle einer Lobby nacheinander aus (eine Mailbox pro Lobby),
+ * verschiedene Lobbys laufen parallel auf dem darunterliegenden Executor
+ * (virtuelle Threads bei spring.threads.virtual.enabled, sonst ein Pool pro Kern).
+ * Damit greift immer nur ein Thread gleichzeitig auf einen GameController zu, ohne globales Lock.
+ */
+@Component
+public class GameExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameExecutor.class);
+
+    // Maximale Anzahl Befehle pro Durchlauf, danach kommen andere Lobbys dran
+    private static final int BATCH = 64;
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GameExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                        @Value("${chesspresso.game-executor.threads:0}") int threads) {
+        this(virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-executor-", 1).factory())
+                : createPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    public GameExecutor(Executor executor) {
+        this(executor, false);
+    }
+
+    private GameExecutor(Executor executor, boolean owned) {
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+    }
+
+    // Befehl in die Mailbox der Lobby legen; läuft nach allen vorher eingereihten Befehlen dieser Lobby
+    public void execute(String lobbyId, Runnable task) {
+        if (lobbyId == null) {
+            throw new IllegalArgumentException("lobbyId must not be null");
+        }
+        // compute() hält den Eintrag gesperrt, damit eine gerade leerlaufende Mailbox nicht parallel entfernt wird
+        Mailbox mailbox = mailboxes.compute(lobbyId, (id, existing) -> {
+            Mailbox m = existing != null ? existing : new Mailbox(id);
+            m.tasks.add(task);
+            return m;
+        });
+        mailbox.schedule();
+    }
+
+    // Anzahl der Lobbys mit wartenden oder laufenden Befehlen
+    public int getActiveMailboxCount() {
+        return mailboxes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            ownedExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static ExecutorService createPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "game-executor-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final class Mailbox implements Runnable {
+        private final String lobbyId;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String lobbyId) {
+            this.lobbyId = lobbyId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) break;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Befehl für Lobby {} fehlgeschlagen", lobbyId, e);
+                }
+            }
+            scheduled.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+                return;
+            }
+            // Leere Mailbox entfernen; execute() legt bei Bedarf eine neue an
+            mailboxes.computeIfPresent(lobbyId, (id, m) -> m == this && m.tasks.isEmpty() && !m.scheduled.get() ? null : m);
+        }
+    }
+}
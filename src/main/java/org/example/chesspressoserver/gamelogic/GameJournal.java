@@ -0,0 +1,423 @@
+package org.example.chesspressoserver.gamelogic;
+
+import jakarta.annotation.PreDestroy;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lokales Append-only-Journal der laufenden Partien (eine Datei pro Lobby).
+ * <p>
+ * Aufbau einer Datei: Header (Magic, lobbyId, gameId, Lobby-Daten), danach Records.
+ * Ein Record ist ein Snapshot ('S' + 40 Bytes, siehe {@link GameSnapshot}),
+ * ein Zug ('M' + gepackter Zug als int, siehe MoveCodes) oder der Uhrenstand nach einem Zug
+ * ('T' + Restzeit Weiß/Schwarz in ms). Aus den Lobby-Daten (Spieler, Bedenkzeit) stellt der Server
+ * nach einem Neustart Lobby und Uhr wieder her, damit die Partie regulär beendet werden kann.
+ * <p>
+ * Züge werden im Speicher gepuffert und gesammelt geschrieben und mit fsync gesichert
+ * (alle {@code chesspresso.journal.flush-interval-ms}). Nach
+ * {@code chesspresso.journal.snapshot-interval} Zügen wird die Datei atomar durch
+ * Header + aktuellen Snapshot ersetzt, damit sie nicht beliebig wächst.
+ * <p>
+ * Zwei Locks pro Datei: {@code stateLock} schützt nur Puffer und Metadaten und wird aus der
+ * Mailbox der Lobby kurz genommen; Schreiben und fsync laufen ausschließlich unter {@code ioLock}
+ * im Flush-Thread. Ein Zug wartet damit nie auf die Platte (und pinnt keinen Carrier-Thread).
+ * Beim Start stellt {@link #recoverAll()} jede Partie aus dem letzten Snapshot
+ * und den danach geschriebenen Zügen wieder her.
+ */
+@Component
+public class GameJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    private static final int MAGIC = 0x43504A32; // "CPJ2"
+    // Journale ohne Lobby-Daten: werden gelesen, die Partie ist aber nicht mehr beendbar
+    private static final int MAGIC_V1 = 0x43504A31; // "CPJ1"
+    private static final byte RECORD_SNAPSHOT = 'S';
+    private static final byte RECORD_MOVE = 'M';
+    private static final byte RECORD_CLOCK = 'T';
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean enabled;
+    private final int snapshotInterval;
+    private final Map<String, JournalFile> files = new ConcurrentHashMap<>();
+
+    public GameJournal(@Value("${chesspresso.journal.dir:data/journal}") String directory,
+                       @Value("${chesspresso.journal.enabled:true}") boolean enabled,
+                       @Value("${chesspresso.journal.snapshot-interval:32}") int snapshotInterval) {
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    // Spieler und Bedenkzeit der Lobby, nötig um sie nach einem Neustart wieder anzulegen
+    public record LobbyInfo(String whitePlayer, String blackPlayer, String gameTime) {
+    }
+
+    // Partie samt Lobby-Daten und Restzeiten (-1 ohne Uhr) aus dem Journal
+    public record RecoveredGame(String lobbyId, GameController game, LobbyInfo lobby,
+                                long whiteRemainingMillis, long blackRemainingMillis) {
+    }
+
+    public void start(String lobbyId, UUID gameId, GameController game) {
+        start(lobbyId, gameId, null, game);
+    }
+
+    // Neue Partie: Datei mit Header + Snapshot der Stellung anlegen
+    public void start(String lobbyId, UUID gameId, LobbyInfo lobby, GameController game) {
+        start(lobbyId, gameId, lobby, game, -1, -1);
+    }
+
+    // Wiederhergestellte Partien behalten ihren Uhrenstand auch in der kompaktierten Datei
+    private void start(String lobbyId, UUID gameId, LobbyInfo lobby, GameController game,
+                       long whiteMillis, long blackMillis) {
+        if (!enabled) return;
+        JournalFile file = files.computeIfAbsent(lobbyId, id -> new JournalFile(id, pathFor(id)));
+        byte[] snapshot = GameSnapshot.write(game);
+        file.ioLock.lock();
+        try {
+            Header header;
+            file.stateLock.lock();
+            try {
+                file.gameId = gameId;
+                file.lobby = lobby;
+                file.whiteMillis = whiteMillis;
+                file.blackMillis = blackMillis;
+                file.pending.reset();
+                file.movesSinceSnapshot = 0;
+                file.pendingSnapshot = null;
+                header = file.header();
+            } finally {
+                file.stateLock.unlock();
+            }
+            file.rewrite(header, snapshot);
+        } catch (IOException e) {
+            logger.warn("Journal für Lobby {} konnte nicht angelegt werden", lobbyId, e);
+        } finally {
+            file.ioLock.unlock();
+        }
+    }
+
+    // Zug im Puffer vormerken; geschrieben wird beim nächsten flush()
+    public void append(String lobbyId, int move, GameController game) {
+        if (!enabled || move == 0) return;
+        JournalFile file = files.get(lobbyId);
+        if (file == null) return;
+        file.stateLock.lock();
+        try {
+            if (++file.movesSinceSnapshot >= snapshotInterval) {
+                // Snapshot deckt alle bisherigen Züge ab, gepufferte Züge werden überflüssig
+                file.pendingSnapshot = GameSnapshot.write(game);
+                file.pending.reset();
+                file.movesSinceSnapshot = 0;
+            } else {
+                file.pending.write(RECORD_MOVE);
+                writeInt(file.pending, move);
+            }
+            // Uhrenstand nach dem Zug; ein neuer Snapshot schreibt ihn selbst hinter sich
+            ChessClock clock = game.getClock();
+            if (clock != null) {
+                long now = System.nanoTime();
+                file.whiteMillis = toMillis(clock.remainingNanos(TeamColor.WHITE, now));
+                file.blackMillis = toMillis(clock.remainingNanos(TeamColor.BLACK, now));
+                if (file.pendingSnapshot == null) {
+                    file.pending.write(RECORD_CLOCK);
+                    writeInt(file.pending, (int) file.whiteMillis);
+                    writeInt(file.pending, (int) file.blackMillis);
+                }
+            }
+        } finally {
+            file.stateLock.unlock();
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static int toMillis(long nanos) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(nanos)));
+    }
+
+    // Partie beendet: Journal verwerfen
+    public void delete(String lobbyId) {
+        if (!enabled) return;
+        JournalFile file = files.remove(lobbyId);
+        if (file == null) return;
+        file.ioLock.lock();
+        try {
+            // ein laufender flush() mit alter Referenz darf die Datei nicht neu anlegen
+            file.deleted = true;
+            file.close();
+            Files.deleteIfExists(file.path);
+        } catch (IOException e) {
+            logger.warn("Journal für Lobby {} konnte nicht gelöscht werden", lobbyId, e);
+        } finally {
+            file.ioLock.unlock();
+        }
+    }
+
+    // Gruppen-Commit: alle gepufferten Züge schreiben, ein fsync pro Datei
+    @Scheduled(fixedDelayString = "${chesspresso.journal.flush-interval-ms:50}")
+    public void flush() {
+        for (JournalFile file : files.values()) {
+            file.ioLock.lock();
+            try {
+                file.flush();
+            } catch (IOException e) {
+                logger.warn("Journal für Lobby {} konnte nicht geschrieben werden", file.lobbyId, e);
+            } finally {
+                file.ioLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        for (JournalFile file : files.values()) {
+            file.ioLock.lock();
+            try {
+                file.close();
+            } finally {
+                file.ioLock.unlock();
+            }
+        }
+    }
+
+    // Alle Journale einlesen und die Partien parallel wiederherstellen (lobbyId -> GameController)
+    public Map<String, GameController> recoverAll() {
+        return recoverGames().stream().collect(Collectors.toMap(RecoveredGame::lobbyId, RecoveredGame::game));
+    }
+
+    public List<RecoveredGame> recoverGames() {
+        if (!enabled || !Files.isDirectory(directory)) return List.of();
+        List<Path> paths;
+        try (Stream<Path> list = Files.list(directory)) {
+            paths = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList();
+        } catch (IOException e) {
+            logger.warn("Journal-Verzeichnis {} konnte nicht gelesen werden", directory, e);
+            return List.of();
+        }
+
+        List<RecoveredGame> recovered = paths.parallelStream()
+                .map(this::recover)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // Datei kompaktieren: entfernt halb geschriebene Records am Ende und startet das Anhängen neu
+        recovered.forEach(r -> start(r.lobbyId(), r.game().getGameId(), r.lobby(), r.game(),
+                r.whiteRemainingMillis(), r.blackRemainingMillis()));
+        return recovered;
+    }
+
+    private RecoveredGame recover(Path path) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+            int magic = in.remaining() < 4 ? 0 : in.getInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                logger.warn("Ungültiges Journal {} wird ignoriert", path);
+                return null;
+            }
+            String lobbyId = readString(in);
+            UUID gameId = in.get() != 0 ? new UUID(in.getLong(), in.getLong()) : null;
+            LobbyInfo lobby = null;
+            if (magic == MAGIC && in.get() != 0) {
+                lobby = new LobbyInfo(readString(in), readString(in), emptyToNull(readString(in)));
+            }
+
+            GameController game = null;
+            int replayed = 0;
+            long whiteMillis = -1;
+            long blackMillis = -1;
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                if (type == RECORD_SNAPSHOT && in.remaining() >= GameSnapshot.SIZE) {
+                    byte[] snapshot = new byte[GameSnapshot.SIZE];
+                    in.get(snapshot);
+                    game = GameSnapshot.restore(gameId, snapshot);
+                    replayed = 0;
+                } else if (type == RECORD_MOVE && in.remaining() >= 4 && game != null) {
+                    game.makeMove(in.getInt());
+                    replayed++;
+                } else if (type == RECORD_CLOCK && in.remaining() >= 8) {
+                    whiteMillis = in.getInt();
+                    blackMillis = in.getInt();
+                } else {
+                    break; // abgeschnittener Record am Dateiende
+                }
+            }
+            if (game == null) {
+                logger.warn("Journal {} enthält keinen Snapshot", path);
+                return null;
+            }
+            logger.info("Partie in Lobby {} wiederhergestellt ({} Züge nach Snapshot)", lobbyId, replayed);
+            return new RecoveredGame(lobbyId, game, lobby, whiteMillis, blackMillis);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Journal {} konnte nicht wiederhergestellt werden", path, e);
+            return null;
+        }
+    }
+
+    private Path pathFor(String lobbyId) {
+        return directory.resolve(lobbyId.replaceAll("[^A-Za-z0-9_-]", "_") + SUFFIX);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    // Header-Felder, unter stateLock kopiert und danach ohne Lock geschrieben
+    private record Header(UUID gameId, LobbyInfo lobby, long whiteMillis, long blackMillis) {
+    }
+
+    private static final class JournalFile {
+        private final String lobbyId;
+        private final Path path;
+
+        // Puffer und Metadaten: nur unter stateLock, auch aus der Mailbox der Lobby
+        private final ReentrantLock stateLock = new ReentrantLock();
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(64);
+        private UUID gameId;
+        private LobbyInfo lobby;
+        private long whiteMillis = -1;
+        private long blackMillis = -1;
+        private byte[] pendingSnapshot;
+        private int movesSinceSnapshot;
+
+        // Datei-I/O inkl. fsync: nur unter ioLock, nie aus der Mailbox
+        private final ReentrantLock ioLock = new ReentrantLock();
+        private FileChannel channel;
+        private boolean deleted;
+
+        private JournalFile(String lobbyId, Path path) {
+            this.lobbyId = lobbyId;
+            this.path = path;
+        }
+
+        // unter stateLock aufrufen
+        private Header header() {
+            return new Header(gameId, lobby, whiteMillis, blackMillis);
+        }
+
+        // unter ioLock: Puffer kurz unter stateLock austauschen, geschrieben wird außerhalb
+        private void flush() throws IOException {
+            if (deleted) return;
+            byte[] snapshot;
+            byte[] moves;
+            Header header;
+            stateLock.lock();
+            try {
+                snapshot = pendingSnapshot;
+                pendingSnapshot = null;
+                moves = pending.size() == 0 ? null : pending.toByteArray();
+                pending.reset();
+                header = header();
+            } finally {
+                stateLock.unlock();
+            }
+            if (snapshot != null) {
+                rewrite(header, snapshot);
+            }
+            // ohne Channel ist das Anlegen fehlgeschlagen (bereits geloggt), ohne Snapshot sind die Züge wertlos
+            if (moves == null || channel == null) return;
+            ByteBuffer buffer = ByteBuffer.wrap(moves);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+
+        // unter ioLock: Header + Snapshot in eine temporäre Datei schreiben und atomar ersetzen
+        private void rewrite(Header header, byte[] snapshot) throws IOException {
+            close();
+            Files.createDirectories(path.getParent());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(MAGIC);
+                writeString(out, lobbyId);
+                out.writeBoolean(header.gameId() != null);
+                if (header.gameId() != null) {
+                    out.writeLong(header.gameId().getMostSignificantBits());
+                    out.writeLong(header.gameId().getLeastSignificantBits());
+                }
+                out.writeBoolean(header.lobby() != null);
+                if (header.lobby() != null) {
+                    writeString(out, header.lobby().whitePlayer());
+                    writeString(out, header.lobby().blackPlayer());
+                    writeString(out, header.lobby().gameTime());
+                }
+                out.writeByte(RECORD_SNAPSHOT);
+                out.write(snapshot);
+                if (header.whiteMillis() >= 0) {
+                    out.writeByte(RECORD_CLOCK);
+                    out.writeInt((int) header.whiteMillis());
+                    out.writeInt((int) header.blackMillis());
+                }
+            }
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        private void close() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Journal {} konnte nicht geschlossen werden", path, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+}
@@ -1,24 +1,71 @@
 package org.example.chesspressoserver.gamelogic;
 
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GameManager {
+    private static final Logger logger = LoggerFactory.getLogger(GameManager.class);
+
     private final Map<String, GameController> games = new ConcurrentHashMap<>();
+    private final GameJournal journal;
+    // Wiederhergestellte Partien, deren Lobby und Uhr noch angelegt werden müssen
+    private final List<GameJournal.RecoveredGame> recovered = new ArrayList<>();
+
+    public GameManager(GameJournal journal) {
+        this.journal = journal;
+    }
 
-    public void startGame(String lobbyId, java.util.UUID gameId) {
-        games.put(lobbyId, new GameController(gameId));
+    // Laufende Partien nach Neustart/Deploy aus dem Journal wiederherstellen
+    @PostConstruct
+    public void recoverGames() {
+        for (GameJournal.RecoveredGame game : journal.recoverGames()) {
+            if (game.lobby() == null) {
+                // Ohne Spieler kann die Lobby nicht neu angelegt und die Partie nie beendet werden
+                logger.warn("Journal der Lobby {} enthält keine Lobby-Daten und wird verworfen", game.lobbyId());
+                journal.delete(game.lobbyId());
+                continue;
+            }
+            games.put(game.lobbyId(), game.game());
+            recovered.add(game);
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("{} laufende Partien aus dem Journal wiederhergestellt", recovered.size());
+        }
+    }
+
+    // Einmalig abholen (GameRestController legt daraus Lobby und Uhr an)
+    public synchronized List<GameJournal.RecoveredGame> takeRecoveredGames() {
+        List<GameJournal.RecoveredGame> result = List.copyOf(recovered);
+        recovered.clear();
+        return result;
+    }
+
+    public void startGame(String lobbyId, java.util.UUID gameId, GameJournal.LobbyInfo lobby) {
+        GameController game = new GameController(gameId);
+        games.put(lobbyId, game);
+        journal.start(lobbyId, gameId, lobby, game);
     }
 
     public GameController getGameByLobby(String lobbyId) {
         return games.get(lobbyId);
     }
 
+    // Nach applyMove aufrufen, damit der Zug im Journal landet
+    public void recordMove(String lobbyId, GameController game) {
+        journal.append(lobbyId, game.getLastMoveCode(), game);
+    }
+
     public boolean resignGame(String lobbyId) {
         if (games.containsKey(lobbyId)) {
             games.remove(lobbyId);
+            journal.delete(lobbyId);
             return true;
         }
         return false;
@@ -26,7 +73,9 @@ public class GameManager {
 
     public boolean rematch(String lobbyId) {
         if (games.containsKey(lobbyId)) {
-            games.put(lobbyId, new GameController());
+            GameController game = new GameController();
+            games.put(lobbyId, game);
+            journal.start(lobbyId, null, game);
             return true;
         }
         return false;
@@ -34,5 +83,6 @@ public class GameManager {
 
     public void removeGameByLobbyId(String lobbyId) {
         games.remove(lobbyId);
+        journal.delete(lobbyId);
     }
 }
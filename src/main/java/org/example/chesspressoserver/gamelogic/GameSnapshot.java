@@ -0,0 +1,116 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
+import org.example.chesspressoserver.gamelogic.modles.Board;
+import org.example.chesspressoserver.gamelogic.modles.CastlingRights;
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+import java.util.UUID;
+
+/**
+ * Kompakter Binär-Snapshot einer Stellung (40 Bytes), aus dem ein GameController
+ * ohne Nachspielen der Züge wiederhergestellt werden kann.
+ * <pre>
+ * Byte  0-31  Brett, 4 Bit pro Feld (A1 = unteres Nibble von Byte 0):
+ *             0 = leer, 1-6 = PAWN..KING (Ordinal + 1), Bit 3 gesetzt = Schwarz
+ * Byte 32     Bit 0 = Schwarz am Zug, Bit 1-4 = Rochaderechte (CastlingRights.toBits)
+ * Byte 33     En-Passant-Feld, 0xFF = keins
+ * Byte 34-35  movesSincePawnMove (unsigned, big endian)
+ * Byte 36-37  movesSinceCapture
+ * Byte 38-39  Zugnummer
+ * </pre>
+ * Nicht enthalten: Wiederholungshistorie und Undo-Stack, beide starten nach dem Laden leer.
+ */
+public final class GameSnapshot {
+
+    public static final int SIZE = 40;
+
+    private static final int BLACK_BIT = 8;
+    private static final int NO_EP = 0xFF;
+    private static final int MAX_COUNTER = 0xFFFF;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private GameSnapshot() {
+    }
+
+    public static byte[] write(GameController game) {
+        byte[] out = new byte[SIZE];
+        Board board = game.getBoard();
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPiece piece = board.getPiece(Bitboards.rank(sq), Bitboards.file(sq));
+            if (piece == null) continue;
+            int code = piece.getType().ordinal() + 1;
+            if (piece.getColour() == TeamColor.BLACK) {
+                code |= BLACK_BIT;
+            }
+            out[sq >> 1] |= (byte) ((sq & 1) == 0 ? code : code << 4);
+        }
+
+        int state = game.getCastlingRights().toBits() << 1;
+        if (game.getAktiveTeam() == TeamColor.BLACK) {
+            state |= 1;
+        }
+        out[32] = (byte) state;
+        int ep = game.getEnPassantSquare();
+        out[33] = (byte) (ep < 0 ? NO_EP : ep);
+        putShort(out, 34, game.getMovesSincePawnMove());
+        putShort(out, 36, game.getMovesSinceCapture());
+        putShort(out, 38, game.getFullmoveNumber());
+        return out;
+    }
+
+    public static GameController restore(byte[] snapshot) {
+        GameController game = new GameController();
+        load(game, snapshot);
+        return game;
+    }
+
+    public static GameController restore(UUID gameId, byte[] snapshot) {
+        GameController game = new GameController(gameId);
+        load(game, snapshot);
+        return game;
+    }
+
+    // Übernimmt den Snapshot in einen bestehenden GameController
+    public static void load(GameController game, byte[] snapshot) {
+        if (snapshot == null || snapshot.length != SIZE) {
+            throw new IllegalArgumentException("snapshot must be " + SIZE + " bytes");
+        }
+        Board board = new Board();
+        for (int sq = 0; sq < 64; sq++) {
+            int b = snapshot[sq >> 1] & 0xFF;
+            int code = (sq & 1) == 0 ? b & 0x0F : b >>> 4;
+            if (code == 0) continue;
+            int type = (code & 7) - 1;
+            if (type < 0 || type > PieceType.KING.ordinal()) {
+                throw new IllegalArgumentException("invalid piece code " + code + " on square " + sq);
+            }
+            TeamColor color = (code & BLACK_BIT) != 0 ? TeamColor.BLACK : TeamColor.WHITE;
+            board.setPiece(Bitboards.rank(sq), Bitboards.file(sq), new ChessPiece(TYPES[type], color));
+        }
+
+        int state = snapshot[32] & 0xFF;
+        TeamColor side = (state & 1) != 0 ? TeamColor.BLACK : TeamColor.WHITE;
+        CastlingRights rights = new CastlingRights();
+        rights.restore((state >>> 1) & CastlingRights.ALL);
+
+        int ep = snapshot[33] & 0xFF;
+        if (ep != NO_EP && ep > 63) {
+            throw new IllegalArgumentException("invalid en passant square " + ep);
+        }
+        game.loadPosition(board, side, rights, ep == NO_EP ? -1 : ep,
+                getShort(snapshot, 34), getShort(snapshot, 36), getShort(snapshot, 38));
+    }
+
+    private static void putShort(byte[] out, int offset, int value) {
+        int v = Math.min(Math.max(value, 0), MAX_COUNTER);
+        out[offset] = (byte) (v >>> 8);
+        out[offset + 1] = (byte) v;
+    }
+
+    private static int getShort(byte[] in, int offset) {
+        return ((in[offset] & 0xFF) << 8) | (in[offset + 1] & 0xFF);
+    }
+}
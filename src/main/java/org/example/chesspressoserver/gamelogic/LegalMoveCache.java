@@ -0,0 +1,89 @@
+package org.example.chesspressoserver.gamelogic;
+
+import lombok.Getter;
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
+import org.example.chesspressoserver.gamelogic.modles.MoveCodes;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Alle legalen Züge der Seite am Zug für genau eine Stellung (Zobrist-Schlüssel).
+ * Wird einmal pro Stellung aufgebaut und danach nur gelesen: Zielfelder je Startfeld als Bitboard,
+ * fertige Ziel-Listen für /possible-moves und die gepackten Züge zur Validierung.
+ * Unveränderlich, darf also ohne Sperre zwischen Threads geteilt werden.
+ */
+public class LegalMoveCache {
+
+    @Getter
+    private final long positionKey;
+    private final int[] moves;
+    private final long[] targets = new long[64];
+    private final List<List<String>> destinations;
+
+    public LegalMoveCache(long positionKey, int[] buffer, int count) {
+        this.positionKey = positionKey;
+        this.moves = Arrays.copyOf(buffer, count);
+        for (int move : moves) {
+            targets[MoveCodes.from(move)] |= Bitboards.bit(MoveCodes.to(move));
+        }
+
+        List<List<String>> lists = new ArrayList<>(64);
+        for (int sq = 0; sq < 64; sq++) {
+            lists.add(toStrings(targets[sq]));
+        }
+        this.destinations = Collections.unmodifiableList(lists);
+    }
+
+    // Zielfelder der Figur auf 'from' (0, wenn dort keine ziehfähige Figur steht)
+    public long getTargets(int from) {
+        return targets[from];
+    }
+
+    // Vorgefertigte, unveränderliche Liste wie "E3", "E4" für die Figur auf 'from'
+    public List<String> getDestinations(int from) {
+        return destinations.get(from);
+    }
+
+    public boolean contains(int from, int to) {
+        return (targets[from] & Bitboards.bit(to)) != 0;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    // Gepackter Zug from -> to (bei Umwandlung mit passender Figur, null = Dame), sonst -1
+    public int findMove(int from, int to, PieceType promotion) {
+        if (!contains(from, to)) {
+            return -1;
+        }
+        PieceType wanted = (promotion == null || promotion == PieceType.NULL) ? PieceType.QUEEN : promotion;
+        for (int move : moves) {
+            if (MoveCodes.from(move) == from && MoveCodes.to(move) == to) {
+                PieceType p = MoveCodes.promotion(move);
+                if (p == null || p == wanted) {
+                    return move;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> toStrings(long bb) {
+        if (bb == 0) {
+            return List.of();
+        }
+        List<String> out = new ArrayList<>(Long.bitCount(bb));
+        while (bb != 0) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            bb &= bb - 1;
+            out.add(Position.of(sq).getPos());
+        }
+        return Collections.unmodifiableList(out);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.gamelogic.modles.MoveCodes;
+import org.example.chesspressoserver.gamelogic.modles.MoveGenerator;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.Position;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perft ("performance test"): zählt alle Blattknoten des Zugbaums bis Tiefe N.
+ * Die Zahlen lassen sich mit bekannten Referenzwerten vergleichen und decken so Fehler
+ * in Zuggenerierung, make/unmake und Sonderzügen auf. Nutzt den GameController direkt.
+ * Kommandozeile: PerftMain (src/jmh/java), Referenzwerte: PerftTest.
+ */
+public final class Perft {
+
+    private final GameController game;
+    private final int[][] moveStack;
+
+    public Perft(GameController game, int maxDepth) {
+        this.game = game;
+        this.moveStack = new int[Math.max(1, maxDepth)][MoveGenerator.MAX_MOVES];
+    }
+
+    public long count(int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        int[] moves = moveStack[depth - 1];
+        int n = game.generateLegalMoves();
+        if (depth == 1) {
+            return n; // Bulk-Counting: letzte Ebene nicht ausführen
+        }
+        for (int i = 0; i < n; i++) {
+            moves[i] = game.getGeneratedMove(i);
+        }
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            game.makeMove(moves[i]);
+            nodes += count(depth - 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // Knoten je Zug der Wurzel, z. B. "E2E4" -> 20 (zum Eingrenzen von Abweichungen)
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        int[] moves = moveStack[Math.max(0, depth - 1)];
+        int n = game.generateLegalMoves();
+        for (int i = 0; i < n; i++) {
+            moves[i] = game.getGeneratedMove(i);
+        }
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            game.makeMove(move);
+            long nodes = count(depth - 1);
+            game.unmakeMove();
+            result.put(toText(move), nodes);
+        }
+        return result;
+    }
+
+    private static String toText(int move) {
+        PieceType promotion = MoveCodes.promotion(move);
+        String text = Position.of(MoveCodes.from(move)).getPos() + Position.of(MoveCodes.to(move)).getPos();
+        return promotion == null ? text : text + promotion.name().charAt(0);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.gamelogic.modles.Bitboards;
+import org.example.chesspressoserver.gamelogic.modles.MoveCodes;
+import org.example.chesspressoserver.models.gamemodels.DrawReason;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kompakte Kodierungen für die Game-Topics (Alternative zum JSON-MoveResponse).
+ * <p>
+ * Text (FEN): {@code "<seq> <zug|-> <schach|-> <status> <FEN>"}, Zug in UCI-Notation (e2e4, e7e8q),
+ * Schach = Feld des Königs, Status = {@code -}, {@code #} (matt) oder der Name des DrawReason.
+ * <p>
+ * Binär (big endian):
+ * <pre>
+ * Byte  0      Typ (1 = Zug, 2 = Brett)
+ * Byte  1-2    seq (unsigned)
+ * Byte  3-6    Zug als int (MoveCodes), 0 = keiner
+ * Byte  7-46   Stellung (GameSnapshot, 40 Bytes: Brett als 64 Nibbles, Seite/Rochade, En Passant, Zähler)
+ * Byte  47     Feld des Königs im Schach, 0xFF = keins
+ * Byte  48     Status: 0 = läuft, 1 = matt, 2+ = DrawReason.ordinal() + 2
+ * Byte  49-56  Restzeit Weiß/Schwarz in ms (int), -1 = ohne Uhr
+ * </pre>
+ */
+public final class WireFrames {
+
+    public static final byte TYPE_MOVE = 1;
+    public static final byte TYPE_BOARD = 2;
+    public static final int BINARY_SIZE = 57;
+
+    private static final int NONE = 0xFF;
+
+    private WireFrames() {
+    }
+
+    public static String text(GameController game, int seq, int move, int checkSquare, boolean checkMate, DrawReason drawReason) {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append(seq).append(' ');
+        if (move == 0) {
+            sb.append('-');
+        } else {
+            appendSquare(sb, MoveCodes.from(move));
+            appendSquare(sb, MoveCodes.to(move));
+            PieceType promotion = MoveCodes.promotion(move);
+            if (promotion != null) {
+                sb.append(Fen.pieceLetter(promotion));
+            }
+        }
+        sb.append(' ');
+        if (checkSquare < 0) {
+            sb.append('-');
+        } else {
+            appendSquare(sb, checkSquare);
+        }
+        sb.append(' ').append(checkMate ? "#" : drawReason != null ? drawReason.name() : "-");
+        sb.append(' ').append(Fen.toFen(game));
+        return sb.toString();
+    }
+
+    public static byte[] binary(byte type, GameController game, int seq, int move, int checkSquare,
+                                boolean checkMate, DrawReason drawReason, long now) {
+        ByteBuffer out = ByteBuffer.allocate(BINARY_SIZE);
+        out.put(type);
+        out.putShort((short) seq);
+        out.putInt(move);
+        out.put(GameSnapshot.write(game));
+        out.put((byte) (checkSquare < 0 ? NONE : checkSquare));
+        out.put((byte) (checkMate ? 1 : drawReason != null ? drawReason.ordinal() + 2 : 0));
+        ChessClock clock = game.getClock();
+        out.putInt(clock == null ? -1 : remainingMillis(clock, TeamColor.WHITE, now));
+        out.putInt(clock == null ? -1 : remainingMillis(clock, TeamColor.BLACK, now));
+        return out.array();
+    }
+
+    private static int remainingMillis(ChessClock clock, TeamColor side, long now) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(clock.remainingNanos(side, now));
+        return (int) Math.min(Math.max(millis, 0), Integer.MAX_VALUE);
+    }
+
+    private static void appendSquare(StringBuilder sb, int sq) {
+        sb.append((char) ('a' + Bitboards.file(sq))).append((char) ('1' + Bitboards.rank(sq)));
+    }
+}
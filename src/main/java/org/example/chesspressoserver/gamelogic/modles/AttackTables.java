@@ -0,0 +1,248 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+/**
+ * Vorberechnete Angriffstabellen, die einmalig beim Laden der Klasse aufgebaut werden.
+ * Springer, König und Bauern sind reine Tabellen-Lookups, Turm und Läufer nutzen
+ * Magic Bitboards: (Belegung & Maske) * Magic >>> Shift ergibt den Index in die Angriffstabelle.
+ * Die Magics werden mit festem Seed gesucht, dadurch ist der Aufbau deterministisch.
+ */
+public final class AttackTables {
+
+    // Richtungen für ray(): Index in RAYS, Gegenrichtung ist jeweils dir ^ 1
+    public static final int NORTH = 0;      // y + 1
+    public static final int SOUTH = 1;      // y - 1
+    public static final int EAST = 2;       // x + 1
+    public static final int WEST = 3;       // x - 1
+    public static final int NORTH_EAST = 4;
+    public static final int SOUTH_WEST = 5;
+    public static final int NORTH_WEST = 6;
+    public static final int SOUTH_EAST = 7;
+
+    private static final int[][] DIRECTIONS = {
+            {0, 1}, {0, -1}, {1, 0}, {-1, 0},
+            {1, 1}, {-1, -1}, {-1, 1}, {1, -1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        initLeapers();
+        initRays();
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int sq = 0; sq < 64; sq++) {
+            seed = initMagic(sq, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, seed);
+            seed = initMagic(sq, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, seed);
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    // --- Lookups ---
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING[sq];
+    }
+
+    // Felder, die ein Bauer der Farbe colorIndex von sq aus angreift (nur Diagonalen)
+    public static long pawnAttacks(int colorIndex, int sq) {
+        return PAWN[colorIndex][sq];
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq]);
+        return ROOK_ATTACKS[sq][index];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq]);
+        return BISHOP_ATTACKS[sq][index];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    // Leerer Strahl von sq in Richtung direction (ohne sq selbst)
+    public static long ray(int direction, int sq) {
+        return RAYS[direction][sq];
+    }
+
+    // Felder zwischen a und b (exklusiv), 0 wenn nicht auf einer Linie/Diagonale
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    // Gesamte Linie/Diagonale durch a und b (inkl. beider Felder), 0 wenn nicht kollinear
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    // --- Aufbau ---
+
+    private static void initLeapers() {
+        int[][] knightJumps = {{2, 1}, {2, -1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {1, -2}, {-1, -2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int x = Bitboards.file(sq);
+            int y = Bitboards.rank(sq);
+            for (int[] d : knightJumps) {
+                KNIGHT[sq] |= bitIfOnBoard(x + d[0], y + d[1]);
+            }
+            for (int[] d : DIRECTIONS) {
+                KING[sq] |= bitIfOnBoard(x + d[0], y + d[1]);
+            }
+            PAWN[Bitboards.WHITE][sq] = bitIfOnBoard(x - 1, y + 1) | bitIfOnBoard(x + 1, y + 1);
+            PAWN[Bitboards.BLACK][sq] = bitIfOnBoard(x - 1, y - 1) | bitIfOnBoard(x + 1, y - 1);
+        }
+    }
+
+    private static void initRays() {
+        for (int sq = 0; sq < 64; sq++) {
+            for (int dir = 0; dir < 8; dir++) {
+                int x = Bitboards.file(sq) + DIRECTIONS[dir][0];
+                int y = Bitboards.rank(sq) + DIRECTIONS[dir][1];
+                while (onBoard(x, y)) {
+                    RAYS[dir][sq] |= Bitboards.bit(Bitboards.square(x, y));
+                    x += DIRECTIONS[dir][0];
+                    y += DIRECTIONS[dir][1];
+                }
+            }
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = RAYS[dir][a];
+                int opposite = dir ^ 1;
+                long fullLine = ray | RAYS[opposite][a] | Bitboards.bit(a);
+                long walked = 0L;
+                int x = Bitboards.file(a) + DIRECTIONS[dir][0];
+                int y = Bitboards.rank(a) + DIRECTIONS[dir][1];
+                while (onBoard(x, y)) {
+                    int b = Bitboards.square(x, y);
+                    BETWEEN[a][b] = walked;
+                    LINE[a][b] = fullLine;
+                    walked |= Bitboards.bit(b);
+                    x += DIRECTIONS[dir][0];
+                    y += DIRECTIONS[dir][1];
+                }
+            }
+        }
+    }
+
+    private static long initMagic(int sq, int[][] directions, long[] masks, long[] magics,
+                                  int[] shifts, long[][] tables, long seed) {
+        long mask = relevantOccupancyMask(sq, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(sq, subset, directions);
+            subset = (subset - mask) & mask; // Carry-Rippler: nächste Teilmenge der Maske
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            seed = xorshift(seed);
+            long r1 = seed;
+            seed = xorshift(seed);
+            long r2 = seed;
+            seed = xorshift(seed);
+            long magic = r1 & r2 & seed; // wenige gesetzte Bits funktionieren am besten
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                masks[sq] = mask;
+                magics[sq] = magic;
+                shifts[sq] = 64 - bits;
+                tables[sq] = table;
+                return seed;
+            }
+        }
+    }
+
+    private static long relevantOccupancyMask(int sq, int[][] directions) {
+        long mask = 0L;
+        for (int[] d : directions) {
+            int x = Bitboards.file(sq) + d[0];
+            int y = Bitboards.rank(sq) + d[1];
+            // Randfelder sind für die Blockade irrelevant
+            while (onBoard(x + d[0], y + d[1])) {
+                mask |= Bitboards.bit(Bitboards.square(x, y));
+                x += d[0];
+                y += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int sq, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] d : directions) {
+            int x = Bitboards.file(sq) + d[0];
+            int y = Bitboards.rank(sq) + d[1];
+            while (onBoard(x, y)) {
+                long bit = Bitboards.bit(Bitboards.square(x, y));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                x += d[0];
+                y += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long xorshift(long x) {
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        return x;
+    }
+
+    private static long bitIfOnBoard(int x, int y) {
+        return onBoard(x, y) ? Bitboards.bit(Bitboards.square(x, y)) : 0L;
+    }
+
+    private static boolean onBoard(int x, int y) {
+        return x >= 0 && x < 8 && y >= 0 && y < 8;
+    }
+}
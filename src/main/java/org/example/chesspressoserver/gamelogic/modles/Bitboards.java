@@ -0,0 +1,65 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+/**
+ * Hilfsfunktionen für 64-Bit-Bitboards.
+ * Feldindex: sq = y * 8 + x (A1 = 0, H1 = 7, A8 = 56, H8 = 63).
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+    public static final long DARK_SQUARES = 0xAA55AA55AA55AA55L;
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    private Bitboards() {
+    }
+
+    public static int square(int x, int y) {
+        return (y << 3) | x;
+    }
+
+    public static int file(int sq) {
+        return sq & 7;
+    }
+
+    public static int rank(int sq) {
+        return sq >>> 3;
+    }
+
+    public static long bit(int sq) {
+        return 1L << sq;
+    }
+
+    // Niedrigstes gesetztes Feld oder -1, wenn das Bitboard leer ist
+    public static int lsb(long bb) {
+        return bb == 0 ? -1 : Long.numberOfTrailingZeros(bb);
+    }
+
+    public static int count(long bb) {
+        return Long.bitCount(bb);
+    }
+
+    public static int colorIndex(TeamColor color) {
+        return color == TeamColor.BLACK ? BLACK : WHITE;
+    }
+
+    public static TeamColor colorOf(int colorIndex) {
+        return colorIndex == BLACK ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    // Index in Board#pieceBitboards: Farbe * 6 + Figurentyp (PAWN..KING)
+    public static int pieceIndex(TeamColor color, PieceType type) {
+        return colorIndex(color) * 6 + type.ordinal();
+    }
+}
@@ -5,38 +5,106 @@ import org.example.chesspressoserver.models.gamemodels.PieceType;
 import org.example.chesspressoserver.models.gamemodels.Position;
 import org.example.chesspressoserver.models.gamemodels.TeamColor;
 
+import java.util.Arrays;
+
+/**
+ * Spielbrett als Kombination aus Mailbox (ChessPiece je Feld) und Bitboards.
+ * Die Mailbox bedient getPiece/checkEmpty, die Bitboards (eins pro Figurentyp und Farbe
+ * plus Belegung) erlauben Abfragen wie Königsfeld, Materialzählung oder Angriffe per Bit-Operation.
+ */
 public class Board {
-    private ChessPiece[][] cells = new ChessPiece[8][8];
+    private final ChessPiece[] squares = new ChessPiece[64];
+    private final long[] pieceBitboards = new long[12];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
 
     public ChessPiece getPiece(int row, int col) {
-        ChessPiece piece = cells[row][col];
-        return piece;
+        return squares[Bitboards.square(col, row)];
     }
 
     public void setPiece(int row, int col, ChessPiece piece) {
-        cells[row][col] = piece;
+        int sq = Bitboards.square(col, row);
+        clearSquare(sq);
+        if (piece != null && piece.getType() != PieceType.NULL && piece.getColour() != TeamColor.NULL) {
+            long bit = Bitboards.bit(sq);
+            squares[sq] = piece;
+            pieceBitboards[Bitboards.pieceIndex(piece.getColour(), piece.getType())] |= bit;
+            colorBitboards[Bitboards.colorIndex(piece.getColour())] |= bit;
+            occupied |= bit;
+        }
     }
 
     public void removePiece(int row, int col) {
-        cells[row][col] = null;
+        clearSquare(Bitboards.square(col, row));
     }
 
     public boolean checkEmpty(int row, int col) {
-        return cells[row][col] == null;
+        return (occupied & Bitboards.bit(Bitboards.square(col, row))) == 0;
     }
 
     public Position getKingPosition(TeamColor teamColor) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece p = cells[row][col];
-                if (p != null
-                        && p.getType() == PieceType.KING
-                        && p.getColour() == teamColor) {
-                    return new Position(col, row);
-                }
-            }
+        int sq = Bitboards.lsb(getPieces(teamColor, PieceType.KING));
+        if (sq < 0) {
+            return null;
         }
-        return null;
+        return Position.of(sq);
+    }
+
+    // --- Bitboard-Abfragen ---
+
+    public long getPieces(TeamColor teamColor, PieceType type) {
+        if (teamColor == TeamColor.NULL || type == PieceType.NULL) {
+            return 0L;
+        }
+        return pieceBitboards[Bitboards.pieceIndex(teamColor, type)];
+    }
+
+    public long getOccupancy(TeamColor teamColor) {
+        if (teamColor == TeamColor.NULL) {
+            return 0L;
+        }
+        return colorBitboards[Bitboards.colorIndex(teamColor)];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    // Alle Figuren von 'attacker', die Feld sq bei gegebener Belegung angreifen (Bauern: nur Diagonalen)
+    public long attackersTo(int sq, TeamColor attacker, long occupancy) {
+        if (attacker == TeamColor.NULL) {
+            return 0L;
+        }
+        int a = Bitboards.colorIndex(attacker) * 6;
+        long queens = pieceBitboards[a + PieceType.QUEEN.ordinal()];
+        return (AttackTables.pawnAttacks(Bitboards.colorIndex(attacker) ^ 1, sq) & pieceBitboards[a + PieceType.PAWN.ordinal()])
+                | (AttackTables.knightAttacks(sq) & pieceBitboards[a + PieceType.KNIGHT.ordinal()])
+                | (AttackTables.kingAttacks(sq) & pieceBitboards[a + PieceType.KING.ordinal()])
+                | (AttackTables.bishopAttacks(sq, occupancy) & (pieceBitboards[a + PieceType.BISHOP.ordinal()] | queens))
+                | (AttackTables.rookAttacks(sq, occupancy) & (pieceBitboards[a + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    public long attackersTo(int sq, TeamColor attacker) {
+        return attackersTo(sq, attacker, occupied);
+    }
+
+    private void clearSquare(int sq) {
+        ChessPiece old = squares[sq];
+        if (old == null) {
+            return;
+        }
+        long mask = ~Bitboards.bit(sq);
+        pieceBitboards[Bitboards.pieceIndex(old.getColour(), old.getType())] &= mask;
+        colorBitboards[Bitboards.colorIndex(old.getColour())] &= mask;
+        occupied &= mask;
+        squares[sq] = null;
+    }
+
+    private void clear() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        occupied = 0L;
     }
 
     public void start() {
@@ -54,7 +122,7 @@ public class Board {
         ChessPiece B_Q = new ChessPiece(PieceType.QUEEN, TeamColor.BLACK);
         ChessPiece B_K = new ChessPiece(PieceType.KING, TeamColor.BLACK);
 
-        cells = new ChessPiece[][]{
+        ChessPiece[][] cells = new ChessPiece[][]{
                 {W_R, W_N, W_B, W_Q, W_K, W_B, W_N, W_R},
                 {W_P, W_P, W_P, W_P, W_P, W_P, W_P, W_P},
                 {null, null, null, null, null, null, null, null},
@@ -64,5 +132,12 @@ public class Board {
                 {B_P, B_P, B_P, B_P, B_P, B_P, B_P, B_P},
                 {B_R, B_N, B_B, B_Q, B_K, B_B, B_N, B_R}
         };
+
+        clear();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                setPiece(row, col, cells[row][col]);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,8 +7,42 @@ import org.example.chesspressoserver.models.gamemodels.TeamColor;
 @Getter
 @Setter
 public class CastlingRights {
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = 15;
+
     private boolean whiteKingSide = true;
     private boolean whiteQueenSide = true;
     private boolean blackKingSide = true;
     private boolean blackQueenSide = true;
+
+    // Rechte als 4-Bit-Maske (für Undo-Stack und Hashing)
+    public int toBits() {
+        return (whiteKingSide ? WHITE_KING_SIDE : 0)
+                | (whiteQueenSide ? WHITE_QUEEN_SIDE : 0)
+                | (blackKingSide ? BLACK_KING_SIDE : 0)
+                | (blackQueenSide ? BLACK_QUEEN_SIDE : 0);
+    }
+
+    public void restore(int bits) {
+        whiteKingSide = (bits & WHITE_KING_SIDE) != 0;
+        whiteQueenSide = (bits & WHITE_QUEEN_SIDE) != 0;
+        blackKingSide = (bits & BLACK_KING_SIDE) != 0;
+        blackQueenSide = (bits & BLACK_QUEEN_SIDE) != 0;
+    }
+
+    // Rechte, die erhalten bleiben, wenn eine Figur von/auf dieses Feld zieht (König- und Turmfelder)
+    public static int keptWhenTouched(int square) {
+        return switch (square) {
+            case 0 -> ALL & ~WHITE_QUEEN_SIDE;                      // a1
+            case 7 -> ALL & ~WHITE_KING_SIDE;                       // h1
+            case 4 -> ALL & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);  // e1
+            case 56 -> ALL & ~BLACK_QUEEN_SIDE;                     // a8
+            case 63 -> ALL & ~BLACK_KING_SIDE;                      // h8
+            case 60 -> ALL & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE); // e8
+            default -> ALL;
+        };
+    }
 }
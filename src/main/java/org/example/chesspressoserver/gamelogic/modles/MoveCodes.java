@@ -0,0 +1,58 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+
+/**
+ * Kodierung eines Zugs als einzelner int, damit Zuglisten ohne Objekte auskommen.
+ * Bits 0-5: Startfeld, 6-11: Zielfeld, 12-15: Flags, 16-18: Umwandlungsfigur (PieceType.ordinal() + 1, 0 = keine).
+ */
+public final class MoveCodes {
+
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PUSH = 2;
+    public static final int EN_PASSANT = 4;
+    public static final int CASTLING = 8;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private MoveCodes() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encode(int from, int to, int flags, PieceType promotion) {
+        return encode(from, to, flags) | ((promotion.ordinal() + 1) << 16);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (flags(move) & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (flags(move) & CASTLING) != 0;
+    }
+
+    // Umwandlungsfigur oder null, wenn der Zug keine Umwandlung ist
+    public static PieceType promotion(int move) {
+        int p = (move >>> 16) & 7;
+        return p == 0 ? null : PIECE_TYPES[p - 1];
+    }
+}
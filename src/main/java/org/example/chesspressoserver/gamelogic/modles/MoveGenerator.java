@@ -0,0 +1,210 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+/**
+ * Erzeugt legale Züge aus den pro Stellung vorberechneten MoveMasks: Pseudo-Zielfelder
+ * geschnitten mit Schach- und Fesselungsmaske, König nur auf nicht angegriffene Felder.
+ * Züge werden als gepackte int-Codes (siehe MoveCodes) in einen Puffer des Aufrufers geschrieben,
+ * dabei wird weder das Brett verändert noch pro Zug ein Objekt angelegt.
+ */
+public final class MoveGenerator {
+
+    // Die meisten legalen Züge einer Stellung sind 218, 256 reicht als Puffergröße
+    public static final int MAX_MOVES = 256;
+
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private MoveGenerator() {
+    }
+
+    // Variante ohne vorberechnete Masken (z. B. für Tests); im Spiel liefert der GameController die Masken
+    public static int generateLegal(Board board, TeamColor side, CastlingRights rights, int epSquare,
+                                    long fromMask, int[] moves) {
+        MoveMasks masks = new MoveMasks();
+        masks.compute(board, side, Bitboards.lsb(board.getPieces(side, PieceType.KING)));
+        return generateLegal(board, masks, rights, epSquare, fromMask, moves);
+    }
+
+    /**
+     * Schreibt die legalen Züge aller Figuren der Seite von 'masks' auf den Feldern in fromMask nach moves
+     * und gibt deren Anzahl zurück. epSquare ist das En-Passant-Zielfeld oder -1.
+     */
+    public static int generateLegal(Board board, MoveMasks masks, CastlingRights rights, int epSquare,
+                                    long fromMask, int[] moves) {
+        if (masks.getKingSquare() < 0) {
+            return 0;
+        }
+        long enemies = board.getOccupancy(masks.getSide() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        long pieces = board.getOccupancy(masks.getSide()) & fromMask;
+        int n = 0;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            PieceType type = board.getPiece(Bitboards.rank(from), Bitboards.file(from)).getType();
+            long targets = legalTargets(board, masks, rights, epSquare, from, type);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                n = addMove(type, from, to, enemies, epSquare, moves, n);
+            }
+        }
+        return n;
+    }
+
+    // true, sobald irgendeine Figur der Seite einen legalen Zug hat (für Matt/Patt)
+    public static boolean hasLegalMove(Board board, MoveMasks masks, int epSquare) {
+        if (masks.getKingSquare() < 0) {
+            return false;
+        }
+        // König zuerst, bei Doppelschach ist er die einzige Option
+        if (legalTargets(board, masks, null, epSquare, masks.getKingSquare(), PieceType.KING) != 0) {
+            return true;
+        }
+        if (Long.bitCount(masks.getCheckers()) > 1) {
+            return false;
+        }
+        long pieces = board.getOccupancy(masks.getSide()) & ~Bitboards.bit(masks.getKingSquare());
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            PieceType type = board.getPiece(Bitboards.rank(from), Bitboards.file(from)).getType();
+            if (legalTargets(board, masks, null, epSquare, from, type) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Legale Zielfelder der Figur auf 'from' als Bitboard (Rochade nur mit rights != null)
+    public static long legalTargets(Board board, MoveMasks masks, CastlingRights rights, int epSquare, int from) {
+        ChessPiece piece = board.getPiece(Bitboards.rank(from), Bitboards.file(from));
+        if (piece == null || piece.getColour() != masks.getSide() || masks.getKingSquare() < 0) {
+            return 0L;
+        }
+        return legalTargets(board, masks, rights, epSquare, from, piece.getType());
+    }
+
+    private static long legalTargets(Board board, MoveMasks masks, CastlingRights rights, int epSquare,
+                                     int from, PieceType type) {
+        TeamColor side = masks.getSide();
+        long own = board.getOccupancy(side);
+        long occupied = board.getOccupied();
+
+        if (type == PieceType.KING) {
+            long targets = AttackTables.kingAttacks(from) & ~own & ~masks.getEnemyAttacks();
+            return targets | castlingTargets(board, masks, rights, occupied);
+        }
+
+        long allowed = masks.getCheckMask() & masks.pinRay(from);
+        if (allowed == 0) {
+            return 0L;
+        }
+        return switch (type) {
+            case PAWN -> pawnTargets(board, masks, from, occupied, epSquare) & (allowed | enPassantBit(epSquare));
+            case KNIGHT -> AttackTables.knightAttacks(from) & ~own & allowed;
+            case BISHOP -> AttackTables.bishopAttacks(from, occupied) & ~own & allowed;
+            case ROOK -> AttackTables.rookAttacks(from, occupied) & ~own & allowed;
+            case QUEEN -> AttackTables.queenAttacks(from, occupied) & ~own & allowed;
+            default -> 0L;
+        };
+    }
+
+    private static long pawnTargets(Board board, MoveMasks masks, int from, long occupied, int epSquare) {
+        int us = Bitboards.colorIndex(masks.getSide());
+        TeamColor enemy = Bitboards.colorOf(us ^ 1);
+        long fromBit = Bitboards.bit(from);
+
+        // Einzel- und Doppelschritt
+        long single = (us == Bitboards.WHITE ? fromBit << 8 : fromBit >>> 8) & ~occupied;
+        long startRank = (us == Bitboards.WHITE) ? Bitboards.RANK_2 : Bitboards.RANK_7;
+        long twoSteps = 0L;
+        if (single != 0 && (startRank & fromBit) != 0) {
+            twoSteps = (us == Bitboards.WHITE ? single << 8 : single >>> 8) & ~occupied;
+        }
+
+        long attacks = AttackTables.pawnAttacks(us, from);
+        long targets = single | twoSteps | (attacks & board.getOccupancy(enemy));
+
+        // En Passant: Sonderfall, weil zwei Figuren die Linie verlassen -> volle Belegungsprüfung
+        if (epSquare >= 0 && (attacks & Bitboards.bit(epSquare)) != 0) {
+            int victim = (us == Bitboards.WHITE) ? epSquare - 8 : epSquare + 8;
+            if ((board.getPieces(enemy, PieceType.PAWN) & Bitboards.bit(victim)) != 0
+                    && isLegal(board, us, masks.getKingSquare(), from, epSquare, MoveCodes.EN_PASSANT)) {
+                targets |= Bitboards.bit(epSquare);
+            }
+        }
+        return targets;
+    }
+
+    private static long enPassantBit(int epSquare) {
+        return epSquare < 0 ? 0L : Bitboards.bit(epSquare);
+    }
+
+    private static long castlingTargets(Board board, MoveMasks masks, CastlingRights rights, long occupied) {
+        if (rights == null || masks.inCheck()) {
+            return 0L; // aus dem Schach heraus keine Rochade
+        }
+        int us = Bitboards.colorIndex(masks.getSide());
+        int backRank = (us == Bitboards.WHITE) ? 0 : 56;
+        int kingSq = masks.getKingSquare();
+        if (kingSq != backRank + 4) {
+            return 0L;
+        }
+        long rooks = board.getPieces(masks.getSide(), PieceType.ROOK);
+        long attacked = masks.getEnemyAttacks();
+        long targets = 0L;
+
+        boolean kingSide = (us == Bitboards.WHITE) ? rights.isWhiteKingSide() : rights.isBlackKingSide();
+        long kingPath = Bitboards.bit(backRank + 5) | Bitboards.bit(backRank + 6);
+        if (kingSide && (rooks & Bitboards.bit(backRank + 7)) != 0
+                && (occupied & kingPath) == 0 && (attacked & kingPath) == 0) {
+            targets |= Bitboards.bit(backRank + 6);
+        }
+
+        boolean queenSide = (us == Bitboards.WHITE) ? rights.isWhiteQueenSide() : rights.isBlackQueenSide();
+        long queenPath = Bitboards.bit(backRank + 2) | Bitboards.bit(backRank + 3);
+        if (queenSide && (rooks & Bitboards.bit(backRank)) != 0
+                && (occupied & (queenPath | Bitboards.bit(backRank + 1))) == 0 && (attacked & queenPath) == 0) {
+            targets |= Bitboards.bit(backRank + 2);
+        }
+        return targets;
+    }
+
+    // Prüft über die Belegung nach dem Zug, ob der eigene König angegriffen wäre (für Sonderfälle wie En Passant)
+    public static boolean isLegal(Board board, int us, int kingSq, int from, int to, int flags) {
+        long captured = Bitboards.bit(to);
+        long occupancy = (board.getOccupied() & ~Bitboards.bit(from)) | captured;
+        if ((flags & MoveCodes.EN_PASSANT) != 0) {
+            captured = Bitboards.bit(us == Bitboards.WHITE ? to - 8 : to + 8);
+            occupancy &= ~captured;
+        }
+        int king = (from == kingSq) ? to : kingSq;
+        // geschlagene Figur greift nicht mehr an
+        return (board.attackersTo(king, Bitboards.colorOf(us ^ 1), occupancy) & ~captured) == 0;
+    }
+
+    private static int addMove(PieceType type, int from, int to, long enemies, int epSquare, int[] moves, int n) {
+        int flags = (enemies & Bitboards.bit(to)) != 0 ? MoveCodes.CAPTURE : 0;
+        if (type == PieceType.PAWN) {
+            int distance = Math.abs(to - from);
+            if (distance == 16) {
+                flags |= MoveCodes.DOUBLE_PUSH;
+            } else if (to == epSquare && distance != 8) {
+                flags |= MoveCodes.CAPTURE | MoveCodes.EN_PASSANT;
+            }
+            if (to >= 56 || to < 8) {
+                for (PieceType promotion : PROMOTIONS) {
+                    moves[n++] = MoveCodes.encode(from, to, flags, promotion);
+                }
+                return n;
+            }
+        } else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            flags |= MoveCodes.CASTLING;
+        }
+        moves[n++] = MoveCodes.encode(from, to, flags);
+        return n;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import lombok.Getter;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+import java.util.Arrays;
+
+/**
+ * Pro Stellung einmal berechnete Masken für die Zuggenerierung der Seite am Zug:
+ * Schachgeber, erlaubte Zielfelder bei Schach, Fesselungslinien und alle vom Gegner angegriffenen Felder.
+ * Legale Züge ergeben sich damit aus reinen Masken-Schnittmengen.
+ */
+@Getter
+public class MoveMasks {
+    private TeamColor side = TeamColor.NULL;
+    private int kingSquare = -1;
+    private long checkers;          // gegnerische Figuren, die den König angreifen
+    private long checkMask = -1L;   // Zielfelder, die ein Schach auflösen (alle, wenn kein Schach; keine bei Doppelschach)
+    private long pinned;            // eigene gefesselte Figuren
+    private long enemyAttacks;      // vom Gegner angegriffene Felder (eigener König als durchsichtig behandelt)
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final long[] pinRays = new long[64];
+
+    public void compute(Board board, TeamColor side, int kingSquare) {
+        this.side = side;
+        this.kingSquare = kingSquare;
+        checkers = 0L;
+        checkMask = -1L;
+        pinned = 0L;
+        enemyAttacks = 0L;
+        Arrays.fill(pinRays, -1L);
+        if (kingSquare < 0 || side == TeamColor.NULL) {
+            return;
+        }
+
+        TeamColor enemy = (side == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        long occupied = board.getOccupied();
+        long own = board.getOccupancy(side);
+
+        // Schachgeber und daraus die erlaubten Zielfelder
+        checkers = board.attackersTo(kingSquare, enemy, occupied);
+        if (checkers != 0) {
+            checkMask = Long.bitCount(checkers) == 1
+                    ? checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers))
+                    : 0L;
+        }
+
+        // Fesselungen: gegnerische Langschrittler mit genau einer eigenen Figur zwischen sich und dem König
+        long queens = board.getPieces(enemy, PieceType.QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, 0L) & (board.getPieces(enemy, PieceType.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, 0L) & (board.getPieces(enemy, PieceType.BISHOP) | queens));
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+                pinRays[Long.numberOfTrailingZeros(blockers)] = AttackTables.line(kingSquare, sniper);
+            }
+        }
+
+        enemyAttacks = attackMap(board, enemy, occupied & ~Bitboards.bit(kingSquare));
+    }
+
+    // Erlaubte Zielfelder für die Figur auf sq wegen Fesselung (alle Felder, wenn nicht gefesselt)
+    public long pinRay(int sq) {
+        return pinRays[sq];
+    }
+
+    public boolean inCheck() {
+        return checkers != 0;
+    }
+
+    // Alle Felder, die 'color' bei gegebener Belegung angreift
+    public static long attackMap(Board board, TeamColor color, long occupancy) {
+        int c = Bitboards.colorIndex(color);
+        long attacks = 0L;
+
+        long pawns = board.getPieces(color, PieceType.PAWN);
+        if (c == Bitboards.WHITE) {
+            attacks |= ((pawns & ~Bitboards.FILE_A) << 7) | ((pawns & ~Bitboards.FILE_H) << 9);
+        } else {
+            attacks |= ((pawns & ~Bitboards.FILE_A) >>> 9) | ((pawns & ~Bitboards.FILE_H) >>> 7);
+        }
+
+        long knights = board.getPieces(color, PieceType.KNIGHT);
+        while (knights != 0) {
+            attacks |= AttackTables.knightAttacks(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+
+        long queens = board.getPieces(color, PieceType.QUEEN);
+        long diagonals = board.getPieces(color, PieceType.BISHOP) | queens;
+        while (diagonals != 0) {
+            attacks |= AttackTables.bishopAttacks(Long.numberOfTrailingZeros(diagonals), occupancy);
+            diagonals &= diagonals - 1;
+        }
+        long straights = board.getPieces(color, PieceType.ROOK) | queens;
+        while (straights != 0) {
+            attacks |= AttackTables.rookAttacks(Long.numberOfTrailingZeros(straights), occupancy);
+            straights &= straights - 1;
+        }
+
+        long king = board.getPieces(color, PieceType.KING);
+        if (king != 0) {
+            attacks |= AttackTables.kingAttacks(Long.numberOfTrailingZeros(king));
+        }
+        return attacks;
+    }
+}
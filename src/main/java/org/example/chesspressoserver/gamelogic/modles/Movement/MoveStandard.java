@@ -1,5 +1,6 @@
 package org.example.chesspressoserver.gamelogic.modles.Movement;
 
+import org.example.chesspressoserver.gamelogic.modles.AttackTables;
 import org.example.chesspressoserver.gamelogic.modles.Board;
 import org.example.chesspressoserver.models.gamemodels.ChessPiece;
 import org.example.chesspressoserver.models.gamemodels.Position;
@@ -9,169 +10,68 @@ import java.util.List;
 
 public class MoveStandard {
 
-    // ---------------- Horizontal ----------------
+    // ---------------- Tabellen-Lookups ----------------
 
-    public static List<Position> horizontalRight(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int y = pos.getY();
-        for (int x = pos.getX() + 1; x < 8; x++) {
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(y, pos.getX());
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
+    // Turm-Ziele (leer oder gegnerisch) per Magic-Lookup
+    public static long rookTargets(Position pos, Board board) {
+        return AttackTables.rookAttacks(pos.getSquare(), board.getOccupied()) & ~ownPieces(pos, board);
+    }
+
+    // Läufer-Ziele (leer oder gegnerisch) per Magic-Lookup
+    public static long bishopTargets(Position pos, Board board) {
+        return AttackTables.bishopAttacks(pos.getSquare(), board.getOccupied()) & ~ownPieces(pos, board);
+    }
+
+    public static long ownPieces(Position pos, Board board) {
+        ChessPiece self = board.getPiece(pos.getY(), pos.getX());
+        return self == null ? 0L : board.getOccupancy(self.getColour());
+    }
+
+    public static List<Position> toPositions(long targets) {
+        List<Position> moves = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0) {
+            int sq = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Position.of(sq));
         }
         return moves;
     }
 
+    // ---------------- Horizontal ----------------
+
+    public static List<Position> horizontalRight(Position pos, Board board) {
+        return toPositions(rookTargets(pos, board) & AttackTables.ray(AttackTables.EAST, pos.getSquare()));
+    }
+
     public static List<Position> horizontalLeft(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int y = pos.getY();
-        for (int x = pos.getX() - 1; x >= 0; x--) {
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(y, pos.getX());
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(rookTargets(pos, board) & AttackTables.ray(AttackTables.WEST, pos.getSquare()));
     }
 
     // ---------------- Vertikal ----------------
 
     public static List<Position> verticalUp(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int x = pos.getX();
-        for (int y = pos.getY() - 1; y >= 0; y--) {
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(pos.getY(), x);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(rookTargets(pos, board) & AttackTables.ray(AttackTables.SOUTH, pos.getSquare()));
     }
 
     public static List<Position> verticalDown(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int x = pos.getX();
-        for (int y = pos.getY() + 1; y < 8; y++) {
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(pos.getY(), x);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(rookTargets(pos, board) & AttackTables.ray(AttackTables.NORTH, pos.getSquare()));
     }
 
     // ---------------- Diagonal ----------------
 
     public static List<Position> diagonalUpRight(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int startX = pos.getX();
-        int startY = pos.getY();
-
-        for (int i = 1; (startX + i) < 8 && (startY - i) >= 0; i++) {
-            int x = startX + i;
-            int y = startY - i;
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(startY, startX);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(bishopTargets(pos, board) & AttackTables.ray(AttackTables.SOUTH_EAST, pos.getSquare()));
     }
 
     public static List<Position> diagonalUpLeft(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int startX = pos.getX();
-        int startY = pos.getY();
-
-        for (int i = 1; (startX - i) >= 0 && (startY - i) >= 0; i++) {
-            int x = startX - i;
-            int y = startY - i;
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(startY, startX);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(bishopTargets(pos, board) & AttackTables.ray(AttackTables.SOUTH_WEST, pos.getSquare()));
     }
 
     public static List<Position> diagonalDownRight(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int startX = pos.getX();
-        int startY = pos.getY();
-
-        for (int i = 1; (startX + i) < 8 && (startY + i) < 8; i++) {
-            int x = startX + i;
-            int y = startY + i;
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(startY, startX);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(bishopTargets(pos, board) & AttackTables.ray(AttackTables.NORTH_EAST, pos.getSquare()));
     }
 
     public static List<Position> diagonalDownLeft(Position pos, Board board) {
-        List<Position> moves = new ArrayList<>();
-        int startX = pos.getX();
-        int startY = pos.getY();
-
-        for (int i = 1; (startX - i) >= 0 && (startY + i) < 8; i++) {
-            int x = startX - i;
-            int y = startY + i;
-            if (board.checkEmpty(y, x)) {
-                moves.add(new Position(x, y));
-            } else {
-                ChessPiece startPiece = board.getPiece(startY, startX);
-                ChessPiece piece = board.getPiece(y, x);
-                if (startPiece.getColour() != piece.getColour()) {
-                    moves.add(new Position(x, y));
-                }
-                break;
-            }
-        }
-        return moves;
+        return toPositions(bishopTargets(pos, board) & AttackTables.ray(AttackTables.NORTH_WEST, pos.getSquare()));
     }
 }
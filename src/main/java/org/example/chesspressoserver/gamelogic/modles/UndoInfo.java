@@ -0,0 +1,26 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.Move;
+
+/**
+ * Eintrag im Undo-Stack des GameControllers: alles, was makeMove überschreibt
+ * und unmakeMove wiederherstellen muss.
+ */
+@Getter
+@AllArgsConstructor
+public class UndoInfo {
+    private final int move;               // gepackter Zug (MoveCodes)
+    private final ChessPiece moved;       // gezogene Figur (vor einer Umwandlung)
+    private final ChessPiece captured;    // geschlagene Figur oder null
+    private final int capturedSquare;     // Feld der geschlagenen Figur (bei En Passant != Zielfeld)
+    private final int castlingBits;       // Rochaderechte vor dem Zug
+    private final int enPassantSquare;    // En-Passant-Feld vor dem Zug, -1 wenn keins
+    private final int movesSincePawnMove;
+    private final int movesSinceCapture;
+    private final int kingSquare;         // Königsfeld der ziehenden Seite vor dem Zug
+    private final Move lastMove;          // lastMove vor dem Zug
+    private final long positionKey;       // Zobrist-Schlüssel vor dem Zug
+}
@@ -0,0 +1,104 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+/**
+ * Zobrist-Schlüssel für Stellungen: XOR aus Zufallszahlen je (Figur, Feld), Zugrecht,
+ * Rochaderechten und En-Passant-Linie. Die Zahlen werden mit festem Seed erzeugt,
+ * damit Schlüssel zwischen Neustarts stabil bleiben.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                seed = next(seed);
+                PIECES[piece][sq] = seed;
+            }
+        }
+        // Einzelrechte bekommen eigene Zahlen, Kombinationen sind deren XOR
+        long[] single = new long[4];
+        for (int i = 0; i < 4; i++) {
+            seed = next(seed);
+            single[i] = seed;
+        }
+        for (int bits = 0; bits < 16; bits++) {
+            for (int i = 0; i < 4; i++) {
+                if ((bits & (1 << i)) != 0) {
+                    CASTLING[bits] ^= single[i];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = next(seed);
+            EN_PASSANT_FILE[file] = seed;
+        }
+        SIDE_TO_MOVE = next(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(TeamColor color, PieceType type, int sq) {
+        return PIECES[Bitboards.pieceIndex(color, type)][sq];
+    }
+
+    public static long castling(int castlingBits) {
+        return CASTLING[castlingBits & 15];
+    }
+
+    // Schwarz am Zug wird mit diesem Wert markiert
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    // EP-Linie zählt nur, wenn ein Bauer der ziehenden Seite tatsächlich en passant schlagen kann
+    public static long enPassant(Board board, TeamColor sideToMove, int epSquare) {
+        if (epSquare < 0) {
+            return 0L;
+        }
+        long pawns = board.getPieces(sideToMove, PieceType.PAWN);
+        if ((AttackTables.pawnAttacks(Bitboards.colorIndex(sideToMove) ^ 1, epSquare) & pawns) == 0) {
+            return 0L;
+        }
+        return EN_PASSANT_FILE[Bitboards.file(epSquare)];
+    }
+
+    // Vollständige Berechnung (für neue Stellungen); während des Spiels wird inkrementell aktualisiert
+    public static long compute(Board board, TeamColor sideToMove, int castlingBits, int epSquare) {
+        long key = 0L;
+        for (TeamColor color : new TeamColor[]{TeamColor.WHITE, TeamColor.BLACK}) {
+            for (PieceType type : new PieceType[]{PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+                    PieceType.ROOK, PieceType.QUEEN, PieceType.KING}) {
+                long pieces = board.getPieces(color, type);
+                while (pieces != 0) {
+                    int sq = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    key ^= piece(color, type, sq);
+                }
+            }
+        }
+        key ^= castling(castlingBits);
+        key ^= enPassant(board, sideToMove, epSquare);
+        if (sideToMove == TeamColor.BLACK) {
+            key ^= SIDE_TO_MOVE;
+        }
+        return key;
+    }
+
+    // splitmix64
+    private static long next(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        long z = x;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -12,4 +12,12 @@ public enum GameTime {
         this.seconds = seconds;
     }
 
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public boolean isUnlimited() {
+        return seconds < 0;
+    }
+
 }
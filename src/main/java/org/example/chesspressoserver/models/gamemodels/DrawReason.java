@@ -0,0 +1,5 @@
+package org.example.chesspressoserver.models.gamemodels;
+
+public enum DrawReason {
+    STALEMATE, FIFTY_MOVE_RULE, INSUFFICIENT_MATERIAL, THREEFOLD_REPETITION, FIVEFOLD_REPETITION
+}
@@ -5,6 +5,15 @@ import lombok.Getter;
 @Getter
 public class Position {
 
+    // canonical instances for all 64 squares, index = y * 8 + x (A1 = 0, H8 = 63)
+    private static final Position[] SQUARES = new Position[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            SQUARES[i] = new Position(i & 7, i >>> 3);
+        }
+    }
+
     private final String pos; // e.g. "A1"
     private final int x;      // col 0..7  (A..H)
     private final int y;      // row 0..7  (1..8)
@@ -28,6 +37,42 @@ public class Position {
         this.pos = calculatePos(x, y);
     }
 
+    // --- flyweights: prefer these over the constructors ---
+
+    public static Position of(int x, int y) {
+        if (x < 0 || x > 7 || y < 0 || y > 7) {
+            throw new IllegalArgumentException("coordinates out of board: x=" + x + ", y=" + y);
+        }
+        return SQUARES[(y << 3) | x];
+    }
+
+    public static Position of(int square) {
+        if (square < 0 || square > 63) {
+            throw new IllegalArgumentException("square out of board: " + square);
+        }
+        return SQUARES[square];
+    }
+
+    public static Position of(String pos) {
+        if (pos == null || pos.length() != 2) {
+            throw new IllegalArgumentException("pos must be like A1..H8");
+        }
+        int x = Character.toUpperCase(pos.charAt(0)) - 'A';
+        int y = pos.charAt(1) - '1';
+        if (x < 0 || x > 7) {
+            throw new IllegalArgumentException("file must be A..H");
+        }
+        if (y < 0 || y > 7) {
+            throw new IllegalArgumentException("rank must be 1..8");
+        }
+        return SQUARES[(y << 3) | x];
+    }
+
+    // square index y * 8 + x
+    public int getSquare() {
+        return (y << 3) | x;
+    }
+
     private int calculateX(String pos) {
         char file = pos.charAt(0);
         if (file < 'A' || file > 'H') {
@@ -66,6 +111,11 @@ public class Position {
         return this.x == other.x && this.y == other.y;
     }
 
+    @Override
+    public int hashCode() {
+        return getSquare();
+    }
+
     @Override
     public String toString() {
         return pos;
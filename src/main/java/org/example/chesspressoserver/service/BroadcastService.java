@@ -0,0 +1,73 @@
+package org.example.chesspressoserver.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versand über STOMP mit einmal serialisierten Payloads: ein Event wird genau einmal zu JSON-Bytes
+ * kodiert und dieselbe unveränderliche Nachricht an alle Ziele/Empfänger geschickt,
+ * statt pro convertAndSend(-ToUser) erneut durch Jackson zu laufen.
+ * Konstante Nachrichten (z.B. der status-update-Heartbeat) werden nur beim ersten Mal kodiert.
+ */
+@Service
+public class BroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Payload (unveränderlich, z.B. Map.of) -> fertig kodierte Nachricht
+    private final Map<Object, Message<byte[]>> staticFrames = new ConcurrentHashMap<>();
+
+    public BroadcastService(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Einmal serialisieren; das Ergebnis kann beliebig oft mit send/sendToUser verschickt werden
+    public Message<byte[]> prepare(Object payload) {
+        try {
+            return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(payload))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Broadcast-Payload konnte nicht serialisiert werden", e);
+        }
+    }
+
+    public void send(String destination, Message<byte[]> frame) {
+        messagingTemplate.send(destination, frame);
+    }
+
+    public void sendToUser(String user, String destination, Message<byte[]> frame) {
+        messagingTemplate.send(messagingTemplate.getUserDestinationPrefix() + user + destination, frame);
+    }
+
+    // Ein Event an mehrere Empfänger, serialisiert wird nur einmal
+    public void sendToUsers(Collection<String> users, String destination, Object payload) {
+        if (users.isEmpty()) return;
+        Message<byte[]> frame = prepare(payload);
+        for (String user : users) {
+            sendToUser(user, destination, frame);
+        }
+    }
+
+    public void broadcast(String destination, Object payload) {
+        send(destination, prepare(payload));
+    }
+
+    // Für konstante Payloads: kodierte Nachricht wird zwischengespeichert und wiederverwendet
+    public void broadcastStatic(String destination, Object payload) {
+        send(destination, staticFrames.computeIfAbsent(payload, this::prepare));
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.chesspressoserver.service;
+
+import lombok.Setter;
+import org.example.chesspressoserver.gamelogic.ChessClock;
+import org.example.chesspressoserver.gamelogic.GameController;
+import org.example.chesspressoserver.gamelogic.GameExecutor;
+import org.example.chesspressoserver.gamelogic.GameManager;
+import org.example.chesspressoserver.models.GameTime;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serverseitige Schachuhren: pro laufender Partie genau ein Eintrag im Timing Wheel
+ * (Flag-Fall der Seite am Zug), kein eigener Thread oder Task pro Partie.
+ * Die Prüfung beim Auslösen läuft in der Mailbox der Lobby, wie alle anderen Befehle der Partie.
+ */
+@Service
+public class ClockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClockService.class);
+
+    private final TimerService timerService;
+    private final GameExecutor gameExecutor;
+    private final GameManager gameManager;
+    private final Map<String, TimerService.Timeout> flagTimers = new ConcurrentHashMap<>();
+
+    // Setter für FlagFallHandler (entkoppelt von GameRestController)
+    @Setter
+    private FlagFallHandler flagFallHandler;
+
+    public ClockService(TimerService timerService, GameExecutor gameExecutor, GameManager gameManager) {
+        this.timerService = timerService;
+        this.gameExecutor = gameExecutor;
+        this.gameManager = gameManager;
+    }
+
+    // Uhr beim Spielstart anlegen und für die Seite am Zug starten; ohne Zeitlimit passiert nichts
+    public void startClock(String lobbyId, GameTime gameTime) {
+        GameController game = gameManager.getGameByLobby(lobbyId);
+        if (game == null || gameTime == null || gameTime.isUnlimited()) return;
+        ChessClock clock = new ChessClock(TimeUnit.SECONDS.toNanos(gameTime.getSeconds()));
+        clock.start(game.getAktiveTeam(), System.nanoTime());
+        game.setClock(clock);
+        scheduleFlag(lobbyId, clock);
+    }
+
+    // Wiederhergestellte Partie: Restzeiten aus dem Journal, die Ausfallzeit zählt nicht
+    public void restoreClock(String lobbyId, long whiteMillis, long blackMillis) {
+        GameController game = gameManager.getGameByLobby(lobbyId);
+        if (game == null || whiteMillis < 0 || blackMillis < 0) return;
+        ChessClock clock = new ChessClock(TimeUnit.MILLISECONDS.toNanos(whiteMillis), TimeUnit.MILLISECONDS.toNanos(blackMillis));
+        clock.start(game.getAktiveTeam(), System.nanoTime());
+        game.setClock(clock);
+        scheduleFlag(lobbyId, clock);
+    }
+
+    // Nach applyMove: Flag-Timer auf die Restzeit der jetzt laufenden Uhr setzen
+    public void onMoveApplied(String lobbyId, GameController game) {
+        ChessClock clock = game.getClock();
+        if (clock != null) {
+            scheduleFlag(lobbyId, clock);
+        }
+    }
+
+    // Partie beendet oder remis: Flag-Timer abbrechen und die Uhr anhalten, damit keine Zeit mehr abläuft
+    public void stopClock(String lobbyId) {
+        TimerService.Timeout timeout = flagTimers.remove(lobbyId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        GameController game = gameManager.getGameByLobby(lobbyId);
+        if (game != null && game.getClock() != null) {
+            game.getClock().stop(System.nanoTime());
+        }
+    }
+
+    // Anzahl laufender Uhren
+    public int getRunningClockCount() {
+        return flagTimers.size();
+    }
+
+    private void scheduleFlag(String lobbyId, ChessClock clock) {
+        TeamColor side = clock.getRunningSide();
+        if (side == null) return;
+        long remaining = Math.max(0, clock.remainingNanos(side, System.nanoTime()));
+        TimerService.Timeout timeout = timerService.schedule(
+                () -> gameExecutor.execute(lobbyId, () -> checkFlag(lobbyId)), remaining, TimeUnit.NANOSECONDS);
+        TimerService.Timeout previous = flagTimers.put(lobbyId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void checkFlag(String lobbyId) {
+        GameController game = gameManager.getGameByLobby(lobbyId);
+        ChessClock clock = game != null ? game.getClock() : null;
+        if (clock == null || clock.getRunningSide() == null) {
+            flagTimers.remove(lobbyId);
+            return;
+        }
+        long now = System.nanoTime();
+        TeamColor side = clock.getRunningSide();
+        if (!clock.isFlagged(side, now)) {
+            // Timer hat vor dem letzten Umschalten ausgelöst, neu planen
+            scheduleFlag(lobbyId, clock);
+            return;
+        }
+        clock.stop(now);
+        flagTimers.remove(lobbyId);
+        logger.info("Zeit abgelaufen in Lobby {} für {}", lobbyId, side);
+        if (flagFallHandler != null) {
+            flagFallHandler.onFlagFall(lobbyId, side);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.chesspressoserver.service;
+
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+
+public interface FlagFallHandler {
+    void onFlagFall(String lobbyId, TeamColor loser);
+}
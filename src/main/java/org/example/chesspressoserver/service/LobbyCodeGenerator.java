@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +19,8 @@ public class LobbyCodeGenerator {
     private static final SecureRandom random = new SecureRandom();
     private static final Logger logger = LoggerFactory.getLogger(LobbyCodeGenerator.class);
 
-    // Liste zum Speichern aller verwendeten Lobby-Codes
-    private final List<String> usedLobbyIds = new ArrayList<>();
+    // Alle verwendeten Lobby-Codes (nebenläufig, Quick-Match-Beitritte erzeugen parallel Codes)
+    private final Set<String> usedLobbyIds = ConcurrentHashMap.newKeySet();
 
     // Callback-Interface um aktive Lobbys zu prüfen
     @Setter
@@ -30,13 +32,12 @@ public class LobbyCodeGenerator {
 
         int codeLength = (lobbyType == LobbyType.PRIVATE) ? 6 : 12;
         
+        // add() reserviert den Code atomar, auch wenn zwei Threads denselben Kandidaten ziehen
         do {
             code = generateRandomCode(codeLength);
             logger.debug("Generated candidate code: {}", code);
-        } while (isCodeInUse(code));
+        } while (isCodeInUse(code) || !usedLobbyIds.add(code));
 
-        // Code zur Liste hinzufügen
-        usedLobbyIds.add(code);
         return code;
     }
 
@@ -5,6 +5,7 @@ import org.example.chesspressoserver.models.Lobby;
 import org.example.chesspressoserver.models.LobbyStatus;
 import org.example.chesspressoserver.models.GameTime;
 import org.example.chesspressoserver.models.requests.StartGameRequest;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.time.LocalDateTime;
 
 @Service
@@ -20,13 +22,15 @@ public class LobbyService {
 
     private final LobbyCodeGenerator lobbyCodeGenerator;
     private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastService broadcastService;
 
     // Alle aktiven Lobbys
     private final Map<String, Lobby> activeLobbies = new ConcurrentHashMap<>();
 
     // Quick Match Warteschlangen nach GameTime
-    private final Map<GameTime, Queue<String>> quickMatchQueues = new ConcurrentHashMap<>();
+    private final Map<GameTime, QuickMatchQueue> quickMatchQueues = new ConcurrentHashMap<>();
     private final UserService userService;
+    private final TimerService timerService;
 
     // Setter für GameStartHandler (entkoppelt von GameRestController)
     @Setter
@@ -42,18 +46,20 @@ public class LobbyService {
     private static final String MESSAGE_KEY = "message";
     private static final String LOBBY_ERROR_TYPE = "LOBBY_ERROR";
 
-    public LobbyService(LobbyCodeGenerator lobbyCodeGenerator, SimpMessagingTemplate messagingTemplate, UserService userService) {
+    public LobbyService(LobbyCodeGenerator lobbyCodeGenerator, SimpMessagingTemplate messagingTemplate, BroadcastService broadcastService, UserService userService, TimerService timerService) {
         this.lobbyCodeGenerator = lobbyCodeGenerator;
         this.messagingTemplate = messagingTemplate;
+        this.broadcastService = broadcastService;
 
         // Setze die Callback-Funktion für den Code-Generator nur wenn die Methode existiert
         this.lobbyCodeGenerator.setLobbyExistsChecker(this::lobbyExists);
 
         // Initialisiere Quick Match Warteschlangen
         for (GameTime gameTime : Arrays.asList(GameTime.SHORT, GameTime.MIDDLE, GameTime.LONG)) {
-            quickMatchQueues.put(gameTime, new LinkedList<>());
+            quickMatchQueues.put(gameTime, new QuickMatchQueue());
         }
         this.userService = userService;
+        this.timerService = timerService;
     }
 
 
@@ -63,65 +69,93 @@ public class LobbyService {
 
 
     public String joinQuickMatch(String playerId, GameTime gameTime) {
-        Queue<String> queue = quickMatchQueues.get(gameTime);
+        QuickMatchQueue queue = quickMatchQueues.get(gameTime);
+        // Eigene Lobby nur anlegen, wenn gerade niemand wartet; bleibt sie ungenutzt, wird sie wieder entfernt
+        Lobby[] ownLobby = new Lobby[1];
+
+        while (true) {
+            QuickMatchQueue.Ticket ticket = queue.pairOrWait(playerId, () -> {
+                if (ownLobby[0] == null) {
+                    ownLobby[0] = createQuickMatchLobby(playerId, gameTime);
+                }
+                return new QuickMatchQueue.Ticket(playerId, ownLobby[0].getLobbyId());
+            });
+
+            if (ticket.playerId().equals(playerId)) {
+                // Erster Spieler (oder wartet bereits) - auf Gegner warten
+                if (ownLobby[0] != null && !ownLobby[0].getLobbyId().equals(ticket.lobbyId())) {
+                    discardQuickMatchLobby(ownLobby[0]);
+                }
+                Lobby lobby = activeLobbies.get(ticket.lobbyId());
+                messagingTemplate.convertAndSendToUser(playerId, QUEUE_LOBBY_UPDATE,
+                    Map.of(
+                        "type", "LOBBY_UPDATE",
+                        LOBBY_ID_KEY, ticket.lobbyId(),
+                        PLAYERS_KEY, lobby != null ? lobby.getPlayers() : List.of(playerId),
+                        STATUS_KEY, "WAITING",
+                        MESSAGE_KEY, "Suche nach Gegner..."
+                    ));
+                return ticket.lobbyId();
+            }
 
-        if (queue.isEmpty()) {
-            // Erster Spieler - erstelle neue Lobby und warte
-            String lobbyId = lobbyCodeGenerator.generatePublicLobbyCode();
-            Lobby lobby = new Lobby(lobbyId, Lobby.LobbyType.PUBLIC, playerId);
-            lobby.setGameTime(gameTime);
-            activeLobbies.put(lobbyId, lobby);
-            queue.offer(lobbyId);
+            // Zweiter Spieler - das Ticket gehört jetzt exklusiv diesem Thread
+            Lobby lobby = activeLobbies.get(ticket.lobbyId());
+            if (lobby == null || lobby.isFull()) {
+                // Lobby wurde inzwischen geschlossen: nächsten Wartenden nehmen oder selbst warten
+                continue;
+            }
+            if (ownLobby[0] != null) {
+                discardQuickMatchLobby(ownLobby[0]);
+            }
+            String lobbyId = lobby.getLobbyId();
+            lobby.addPlayer(playerId);
+            lobby.setStatus(LobbyStatus.FULL);
 
+            // Sende LOBBY_UPDATE an den zweiten Spieler, damit er subscriben kann
             messagingTemplate.convertAndSendToUser(playerId, QUEUE_LOBBY_UPDATE,
                 Map.of(
                     "type", "LOBBY_UPDATE",
                     LOBBY_ID_KEY, lobbyId,
                     PLAYERS_KEY, lobby.getPlayers(),
-                    STATUS_KEY, "WAITING",
-                    MESSAGE_KEY, "Suche nach Gegner..."
+                    STATUS_KEY, "FULL",
+                    MESSAGE_KEY, "Quick Match gefunden. Du bist der zweite Spieler."
                 ));
 
+            // Automatischer Spielstart, wenn zwei Spieler in der Lobby sind
+            if (lobby.getPlayers().size() == 2 && gameStartHandler != null) {
+                StartGameRequest startReq = new StartGameRequest();
+                startReq.setLobbyId(lobby.getLobbyId());
+                startReq.setGameTime(lobby.getGameTime().name());
+                startReq.setRandomPlayers(true); // Quick-Match: Farben zufällig
+                // Spieler werden im GameStartHandler zufällig zugewiesen
+                // 400ms Delay für Client-Subscription
+                timerService.schedule(() -> gameStartHandler.startGame(startReq), 400, TimeUnit.MILLISECONDS);
+            }
             return lobbyId;
-        } else {
-            // Zweiter Spieler - trete bestehender Lobby bei
-            String lobbyId = queue.poll();
-            Lobby lobby = activeLobbies.get(lobbyId);
+        }
+    }
 
-            if (lobby != null && !lobby.isFull()) {
-                lobby.addPlayer(playerId);
-                lobby.setStatus(LobbyStatus.FULL);
+    private Lobby createQuickMatchLobby(String playerId, GameTime gameTime) {
+        String lobbyId = lobbyCodeGenerator.generatePublicLobbyCode();
+        Lobby lobby = new Lobby(lobbyId, Lobby.LobbyType.PUBLIC, playerId);
+        lobby.setGameTime(gameTime);
+        // vor dem Einstellen ins Ticket registrieren, damit ein Gegner sie sofort findet
+        activeLobbies.put(lobbyId, lobby);
+        return lobby;
+    }
 
-                // Sende LOBBY_UPDATE an den zweiten Spieler, damit er subscriben kann
-                messagingTemplate.convertAndSendToUser(playerId, QUEUE_LOBBY_UPDATE,
-                    Map.of(
-                        "type", "LOBBY_UPDATE",
-                        LOBBY_ID_KEY, lobbyId,
-                        PLAYERS_KEY, lobby.getPlayers(),
-                        STATUS_KEY, "FULL",
-                        MESSAGE_KEY, "Quick Match gefunden. Du bist der zweite Spieler."
-                    ));
+    // Angelegte, aber nie veröffentlichte Quick-Match-Lobby wieder freigeben
+    private void discardQuickMatchLobby(Lobby lobby) {
+        activeLobbies.remove(lobby.getLobbyId());
+        lobbyCodeGenerator.removeLobbyCode(lobby.getLobbyId());
+    }
 
-                // Automatischer Spielstart, wenn zwei Spieler in der Lobby sind
-                if (lobby.getPlayers().size() == 2 && gameStartHandler != null) {
-                    StartGameRequest startReq = new StartGameRequest();
-                    startReq.setLobbyId(lobby.getLobbyId());
-                    startReq.setGameTime(lobby.getGameTime().name());
-                    startReq.setRandomPlayers(true); // Quick-Match: Farben zufällig
-                    // Spieler werden im GameStartHandler zufällig zugewiesen
-                    new Thread(() -> {
-                        try {
-                            Thread.sleep(400); // 400ms Delay für Client-Subscription
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                        gameStartHandler.startGame(startReq);
-                    }).start();
-                }
-                return lobbyId;
-            } else {
-                // Fallback: Erstelle neue Lobby
-                return joinQuickMatch(playerId, gameTime);
+    // Wartendes Quick-Match-Ticket einer geschlossenen Lobby austragen
+    private void cancelQuickMatch(Lobby lobby) {
+        if (lobby.getGameTime() != null) {
+            QuickMatchQueue queue = quickMatchQueues.get(lobby.getGameTime());
+            if (queue != null) {
+                queue.cancel(lobby.getLobbyId());
             }
         }
     }
@@ -179,6 +213,19 @@ public class LobbyService {
     }
 
 
+    // Lobby einer aus dem Journal wiederhergestellten Partie neu anlegen (Spiel läuft bereits)
+    public Lobby restoreLobby(String lobbyId, String whitePlayer, String blackPlayer, GameTime gameTime) {
+        Lobby lobby = new Lobby(lobbyId, Lobby.LobbyType.PUBLIC, whitePlayer);
+        lobby.addPlayer(blackPlayer);
+        lobby.setWhitePlayer(whitePlayer);
+        lobby.setBlackPlayer(blackPlayer);
+        lobby.setGameTime(gameTime);
+        lobby.setGameStarted(true);
+        lobby.setStatus(LobbyStatus.IN_GAME);
+        activeLobbies.putIfAbsent(lobbyId, lobby);
+        return activeLobbies.get(lobbyId);
+    }
+
     public void startGame(Lobby lobby) {
         lobby.setGameStarted(true);
         lobby.setStatus(LobbyStatus.IN_GAME);
@@ -237,6 +284,7 @@ public class LobbyService {
             // Wenn kein Spieler mehr da ist oder der Creator geht, schließe die Lobby
             activeLobbies.remove(lobbyId);
             lobbyCodeGenerator.removeLobbyCode(lobbyId);
+            cancelQuickMatch(lobby);
             // Informiere alle über die Schließung der Lobby
             broadcastLobbyRemoved(lobbyId);
             logger.info("Lobby closed - Empty: {}, Creator left: {}, Lobby: {}",
@@ -262,9 +310,8 @@ public class LobbyService {
             MESSAGE_KEY, message
         );
 
-        for (String playerId : lobby.getPlayers()) {
-            messagingTemplate.convertAndSendToUser(playerId, QUEUE_LOBBY_UPDATE, update);
-        }
+        // Einmal serialisieren, an jeden Spieler dieselbe Nachricht
+        broadcastService.sendToUsers(lobby.getPlayers(), QUEUE_LOBBY_UPDATE, update);
     }
 
 
@@ -289,7 +336,7 @@ public class LobbyService {
             );
 
             // Broadcast an alle Lobby-Teilnehmer
-            messagingTemplate.convertAndSend(TOPIC_LOBBY_PREFIX + lobbyId, updateMessage);
+            broadcastService.broadcast(TOPIC_LOBBY_PREFIX + lobbyId, updateMessage);
         }
     }
 
@@ -310,7 +357,7 @@ public class LobbyService {
             );
 
             // Broadcast an alle verbleibenden Lobby-Teilnehmer
-            messagingTemplate.convertAndSend(TOPIC_LOBBY_PREFIX + lobbyId, updateMessage);
+            broadcastService.broadcast(TOPIC_LOBBY_PREFIX + lobbyId, updateMessage);
         }
     }
 
@@ -334,6 +381,7 @@ public class LobbyService {
         if (removed != null) {
             // Lobby-Code freigeben
             lobbyCodeGenerator.removeLobbyCode(lobbyId);
+            cancelQuickMatch(removed);
             // Broadcast ueber Lobby-Entfernung
             broadcastLobbyRemoved(lobbyId);
             logger.info("Lobby closed after game end - Lobby: {}", lobbyId);
@@ -361,6 +409,7 @@ public class LobbyService {
                 if (lobby.getPlayers().isEmpty()) {
                     lobbiesToRemove.add(lobby.getLobbyId());
                     lobbyCodeGenerator.removeLobbyCode(lobby.getLobbyId());
+                    cancelQuickMatch(lobby);
                 } else {
                     // Benachrichtige andere Spieler
                     notifyLobbyUpdate(lobby, "Spieler hat Lobby verlassen (Verbindung getrennt)");
@@ -405,11 +454,10 @@ public class LobbyService {
             MESSAGE_KEY, "Die Lobby wurde geschlossen"
         );
 
-        // Broadcast an den allgemeinen Lobby-Topic
-        messagingTemplate.convertAndSend("/topic/lobbies", message);
-
-        // Broadcast an den spezifischen Lobby-Topic
-        messagingTemplate.convertAndSend(TOPIC_LOBBY_PREFIX + lobbyId, message);
+        // Broadcast an den allgemeinen und den spezifischen Lobby-Topic, serialisiert wird nur einmal
+        Message<byte[]> frame = broadcastService.prepare(message);
+        broadcastService.send("/topic/lobbies", frame);
+        broadcastService.send(TOPIC_LOBBY_PREFIX + lobbyId, frame);
     }
 
     /**
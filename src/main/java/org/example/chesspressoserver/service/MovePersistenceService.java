@@ -0,0 +1,204 @@
+package org.example.chesspressoserver.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind für die Tabelle "moves": Züge landen in einer begrenzten Queue und werden
+ * von einem eigenen Thread gesammelt per JDBC-Batch eingefügt (nach Zeit oder Batchgröße).
+ * Der WebSocket-Thread wartet damit nicht mehr auf die Datenbank.
+ * Schlägt ein Batch fehl, wird er mit Backoff wiederholt und danach zeilenweise eingefügt,
+ * sodass nur die fehlerhafte Zeile verloren geht und nicht der ganze Batch.
+ * JDBC läuft nur im Writer-Thread: ist die Queue auch nach kurzer Wartezeit voll, landet der Zug im
+ * Overflow-Log statt synchron (mit Retries) in der Mailbox der Lobby geschrieben zu werden.
+ */
+@Service
+public class MovePersistenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovePersistenceService.class);
+    // Eigener Logger für verworfene Züge, damit sie sich gezielt abgreifen und nachtragen lassen
+    private static final Logger overflowLogger = LoggerFactory.getLogger(MovePersistenceService.class.getName() + ".overflow");
+
+    static final String INSERT_SQL =
+            "INSERT INTO moves (id, game_id, move_number, move_notation, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingMove> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MovePersistenceService(JdbcTemplate jdbcTemplate,
+                                  @Value("${chesspresso.moves.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${chesspresso.moves.batch-size:200}") int batchSize,
+                                  @Value("${chesspresso.moves.flush-interval-ms:100}") long flushIntervalMs,
+                                  @Value("${chesspresso.moves.enqueue-timeout-ms:50}") long enqueueTimeoutMs,
+                                  @Value("${chesspresso.moves.max-retries:3}") int maxRetries,
+                                  @Value("${chesspresso.moves.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "move-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Queue leeren und Writer beenden
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    // Zug zum Speichern vormerken; moveNumber kommt aus dem Halbzugzähler der Partie
+    public void enqueue(UUID gameId, int moveNumber, String notation) {
+        if (gameId == null) return;
+        PendingMove move = new PendingMove(gameId, moveNumber, notation, OffsetDateTime.now());
+        try {
+            if (queue.offer(move, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Queue voll: kein JDBC (samt Retry-Backoff) auf dem Aufrufer, das ist die Mailbox der Lobby
+        dropped.incrementAndGet();
+        overflowLogger.error("Move-Queue voll, Zug nicht gespeichert: game_id={} move_number={} move_notation={} created_at={}",
+                gameId, moveNumber, notation, move.createdAt());
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // Wegen voller Queue verworfene Züge seit dem Start
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void runWriter() {
+        List<PendingMove> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMove first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Bis zur Batchgröße oder bis das Flush-Intervall abgelaufen ist sammeln
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) break;
+                    PendingMove next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                writeBatch(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMove> batch) {
+        if (batch.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (PendingMove move : batch) {
+            args.add(new Object[]{UUID.randomUUID(), move.gameId(), move.moveNumber(), move.notation(), move.createdAt()});
+        }
+        // IDs nur einmal vergeben: nach einem Teil-Commit kollidieren bereits gespeicherte Zeilen
+        // beim Wiederholen am Primärschlüssel, statt doppelt eingefügt zu werden
+        long backoff = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                return;
+            } catch (NonTransientDataAccessException e) {
+                // Constraint-/SQL-Fehler werden durch Warten nicht besser
+                logger.warn("Batch mit {} Zügen abgelehnt, speichere zeilenweise", batch.size(), e);
+                break;
+            } catch (DataAccessException e) {
+                if (attempt >= maxRetries || !sleep(backoff)) {
+                    logger.warn("Batch mit {} Zügen nach {} Versuchen fehlgeschlagen, speichere zeilenweise",
+                            batch.size(), attempt + 1, e);
+                    break;
+                }
+                logger.debug("Batch mit {} Zügen fehlgeschlagen, Versuch {} in {} ms", batch.size(), attempt + 2, backoff);
+                backoff *= 2;
+            }
+        }
+        writeRows(args);
+    }
+
+    // Fallback: jede Zeile einzeln, damit nur die fehlerhafte verloren geht
+    private void writeRows(List<Object[]> args) {
+        int failed = 0;
+        for (Object[] row : args) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, row);
+            } catch (DuplicateKeyException e) {
+                // schon beim fehlgeschlagenen Batch gespeichert
+                logger.debug("Zug {} von Spiel {} war bereits gespeichert", row[2], row[1]);
+            } catch (DataAccessException e) {
+                failed++;
+                logger.error("Zug {} von Spiel {} konnte nicht gespeichert werden", row[2], row[1], e);
+            }
+        }
+        if (failed > 0) {
+            logger.error("{} von {} Zügen konnten nicht gespeichert werden", failed, args.size());
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record PendingMove(UUID gameId, int moveNumber, String notation, OffsetDateTime createdAt) {
+    }
+}
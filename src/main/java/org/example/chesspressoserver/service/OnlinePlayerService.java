@@ -1,69 +1,150 @@
 package org.example.chesspressoserver.service;
 
+import lombok.Setter;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Online-Status nach Ablaufzeit geordnet: jeder Spieler hat eine Deadline (letzter Heartbeat + Timeout)
+ * und liegt im Bucket seiner Ablaufsekunde in einem Ring aus Sekunden-Buckets (Timing Wheel).
+ * Heartbeat verschiebt den Spieler in O(1) in einen neuen Bucket, cleanup() arbeitet nur die
+ * inzwischen abgelaufenen Buckets ab (O(abgelaufene)), die Anzahl ist ein mitgeführter Zähler.
+ */
 @Service
 public class OnlinePlayerService {
 
     private static final Logger logger = LoggerFactory.getLogger(OnlinePlayerService.class);
 
-    private final Map<String, Instant> lastSeenMap = new ConcurrentHashMap<>();
-    private final Duration TIMEOUT = Duration.ofSeconds(45); // Reduziert auf 45 Sekunden - Client sendet alle 30 Sekunden
+    private static final Duration TIMEOUT = Duration.ofSeconds(45); // Reduziert auf 45 Sekunden - Client sendet alle 30 Sekunden
+    // Eine Umdrehung muss länger sein als der Timeout, sonst teilen sich zwei Ablaufsekunden einen Bucket
+    private static final int WHEEL_SIZE = 64;
+    private static final long BUCKET_MILLIS = 1000;
 
-    public void updateHeartbeat(String playerId) {
-        if (playerId != null && !playerId.equals("anonymous")) {
-            lastSeenMap.put(playerId, Instant.now());
+    private final LongSupplier clock;
+    private final long timeoutMillis;
+    // playerId -> Deadline in ms (monoton, siehe clock)
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    private final List<Set<String>> wheel;
+    private final AtomicInteger onlineCount = new AtomicInteger();
+    // letzte vollständig abgearbeitete Sekunde
+    private long expiredUpTo;
+
+    // Setter für PresenceListener (entkoppelt von PresenceService)
+    @Setter
+    private PresenceListener presenceListener;
+
+    public OnlinePlayerService() {
+        this(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    // Uhr in Millisekunden injizierbar für Tests
+    OnlinePlayerService(LongSupplier clock) {
+        this.clock = clock;
+        this.timeoutMillis = TIMEOUT.toMillis();
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
         }
+        this.expiredUpTo = Math.floorDiv(clock.getAsLong(), BUCKET_MILLIS);
     }
 
-    public Set<String> getOnlinePlayers() {
-        Instant now = Instant.now();
-        return lastSeenMap.entrySet().stream()
-                .filter(entry -> Duration.between(entry.getValue(), now).compareTo(TIMEOUT) < 0)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+    public void updateHeartbeat(String playerId) {
+        if (playerId == null || playerId.equals("anonymous")) {
+            return;
+        }
+        long deadline = clock.getAsLong() + timeoutMillis;
+        // compute serialisiert Heartbeats desselben Spielers, Bucket-Wechsel bleibt damit konsistent
+        deadlines.compute(playerId, (id, previous) -> {
+            if (previous == null) {
+                onlineCount.incrementAndGet();
+                notifyPresence(id, true);
+            } else {
+                bucket(previous).remove(id);
+            }
+            bucket(deadline).add(id);
+            return deadline;
+        });
     }
 
     public boolean isPlayerOnline(String playerId) {
         if (playerId == null || playerId.equals("anonymous")) {
             return false;
         }
-        Instant lastSeen = lastSeenMap.get(playerId);
-        if (lastSeen == null) {
-            return false;
-        }
-        return Duration.between(lastSeen, Instant.now()).compareTo(TIMEOUT) < 0;
+        Long deadline = deadlines.get(playerId);
+        return deadline != null && deadline > clock.getAsLong();
     }
 
     public void removePlayer(String playerId) {
-        lastSeenMap.remove(playerId);
+        if (playerId == null) {
+            return;
+        }
+        deadlines.computeIfPresent(playerId, (id, deadline) -> {
+            bucket(deadline).remove(id);
+            onlineCount.decrementAndGet();
+            notifyPresence(id, false);
+            return null;
+        });
     }
 
-    public void cleanup() {
-        Instant now = Instant.now();
-        Set<String> playersToRemove = lastSeenMap.entrySet().stream()
-                .filter(entry -> Duration.between(entry.getValue(), now).compareTo(TIMEOUT) >= 0)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-        
-        playersToRemove.forEach(lastSeenMap::remove);
-        
-        if (!playersToRemove.isEmpty()) {
-            logger.info("Removed inactive players: {}", playersToRemove);
+    // Arbeitet alle Sekunden-Buckets seit dem letzten Aufruf ab; ein Bucket wird nur einmal angefasst
+    public synchronized void cleanup() {
+        long now = clock.getAsLong();
+        long nowSecond = Math.floorDiv(now, BUCKET_MILLIS);
+        long from = Math.max(expiredUpTo + 1, nowSecond - WHEEL_SIZE + 1);
+        List<String> removedPlayers = new ArrayList<>();
+        for (long second = from; second <= nowSecond; second++) {
+            Set<String> bucket = wheel.get(slot(second));
+            for (String playerId : bucket) {
+                // Einträge einer späteren Umdrehung im selben Bucket bleiben liegen
+                deadlines.computeIfPresent(playerId, (id, deadline) -> {
+                    if (deadline > now) return deadline;
+                    bucket.remove(id);
+                    onlineCount.decrementAndGet();
+                    notifyPresence(id, false);
+                    removedPlayers.add(id);
+                    return null;
+                });
+            }
+        }
+        expiredUpTo = nowSecond;
+
+        if (!removedPlayers.isEmpty()) {
+            logger.info("Removed inactive players: {}", removedPlayers);
         }
     }
 
+    // O(1); abgelaufene Spieler zählen bis zum nächsten cleanup() noch mit
     public int getOnlinePlayerCount() {
-        return getOnlinePlayers().size();
+        return onlineCount.get();
+    }
+
+    // Bucket der Sekunde, in der die Deadline liegt (aufgerundet: abgelaufen, sobald die Sekunde erreicht ist)
+    private Set<String> bucket(long deadline) {
+        return wheel.get(slot(Math.ceilDiv(deadline, BUCKET_MILLIS)));
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) WHEEL_SIZE);
+    }
+
+    // Nur innerhalb von compute aufrufen: so kommen Join/Leave eines Spielers in derselben Reihenfolge
+    // beim Listener an, in der sie auf die Map wirken (Disconnect gegen Reconnect). Der Listener muss kurz sein.
+    private void notifyPresence(String playerId, boolean online) {
+        PresenceListener listener = presenceListener;
+        if (listener != null) {
+            listener.onPresenceChange(playerId, online);
+        }
     }
-}
\ No newline at end of file
+}
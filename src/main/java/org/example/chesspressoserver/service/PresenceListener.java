@@ -0,0 +1,5 @@
+package org.example.chesspressoserver.service;
+
+public interface PresenceListener {
+    void onPresenceChange(String playerId, boolean online);
+}
@@ -0,0 +1,92 @@
+package org.example.chesspressoserver.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Online-Status als versionierte Diffs: Joins/Leaves aus dem OnlinePlayerService werden gesammelt
+ * und alle paar hundert Millisekunden als ein "presence-diff" an /topic/players geschickt.
+ * Die vollständige Liste gibt es nur auf Anfrage (/app/players) als "presence-snapshot" mit Version;
+ * springt die Version eines Diffs um mehr als 1, hat der Client etwas verpasst und fordert einen Snapshot an.
+ */
+@Service
+public class PresenceService implements PresenceListener {
+
+    public static final String TOPIC = "/topic/players";
+
+    private final BroadcastService broadcastService;
+
+    // playerId -> letzter gemeldeter Zustand im aktuellen Fenster (true = online)
+    private final Map<String, Boolean> pending = new LinkedHashMap<>();
+    // Stand zur aktuellen Version, daraus entstehen Snapshots
+    private final Set<String> published = new HashSet<>();
+    private long version;
+
+    public PresenceService(BroadcastService broadcastService, OnlinePlayerService onlinePlayerService) {
+        this.broadcastService = broadcastService;
+        onlinePlayerService.setPresenceListener(this);
+    }
+
+    @Override
+    public void onPresenceChange(String playerId, boolean online) {
+        synchronized (pending) {
+            pending.put(playerId, online);
+        }
+    }
+
+    // Ein Diff pro Fenster; Join+Leave innerhalb desselben Fensters heben sich auf
+    @Scheduled(fixedDelayString = "${chesspresso.presence.batch-ms:250}")
+    public void flush() {
+        Map<String, Boolean> changes;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        synchronized (published) {
+            List<String> joined = new ArrayList<>();
+            List<String> left = new ArrayList<>();
+            changes.forEach((playerId, online) -> {
+                if (online) {
+                    if (published.add(playerId)) joined.add(playerId);
+                } else if (published.remove(playerId)) {
+                    left.add(playerId);
+                }
+            });
+            if (joined.isEmpty() && left.isEmpty()) return;
+            version++;
+            Map<String, Object> diff = Map.of(
+                    "type", "presence-diff",
+                    "version", version,
+                    "joined", joined,
+                    "left", left
+            );
+            // unter dem Lock senden, damit Diffs in Versionsreihenfolge beim Broker ankommen
+            broadcastService.broadcast(TOPIC, diff);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        synchronized (published) {
+            return Map.of(
+                    "type", "presence-snapshot",
+                    "version", version,
+                    "onlinePlayers", List.copyOf(published),
+                    "playerCount", published.size()
+            );
+        }
+    }
+
+    public long getVersion() {
+        synchronized (published) {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.chesspressoserver.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Lock-freie Warteschlange für Quick Match einer Bedenkzeit. Es wartet höchstens ein Spieler:
+ * wer kommt, übernimmt per CAS den Wartenden oder legt per CAS sein eigenes Ticket ab.
+ * Genau ein Thread gewinnt jeden Wartenden, niemand wird doppelt gepaart oder verloren;
+ * ein verlorenes CAS bedeutet, dass ein anderer Thread vorangekommen ist (keine Rekursion, kein Lock).
+ */
+public class QuickMatchQueue {
+
+    public record Ticket(String playerId, String lobbyId) {}
+
+    private final AtomicReference<Ticket> waiting = new AtomicReference<>();
+
+    /**
+     * Paart den Spieler mit dem Wartenden oder stellt ihn selbst in die Warteschlange.
+     * Rückgabe: Ticket des Gegners (gepaart, Ticket ist aus der Schlange entfernt) oder ein Ticket
+     * des Spielers selbst (wartet jetzt bzw. wartete schon). Das eigene Ticket wird nur erzeugt,
+     * wenn niemand wartet.
+     */
+    public Ticket pairOrWait(String playerId, Supplier<Ticket> ownTicket) {
+        Ticket own = null;
+        while (true) {
+            Ticket current = waiting.get();
+            if (current == null) {
+                if (own == null) {
+                    own = ownTicket.get();
+                }
+                if (waiting.compareAndSet(null, own)) {
+                    return own;
+                }
+            } else if (current.playerId().equals(playerId)) {
+                return current;
+            } else if (waiting.compareAndSet(current, null)) {
+                return current;
+            }
+        }
+    }
+
+    // Wartendes Ticket der Lobby austragen (Lobby geschlossen/verlassen); false, wenn schon gepaart
+    public boolean cancel(String lobbyId) {
+        Ticket current = waiting.get();
+        return current != null && current.lobbyId().equals(lobbyId) && waiting.compareAndSet(current, null);
+    }
+
+    public Ticket peek() {
+        return waiting.get();
+    }
+}
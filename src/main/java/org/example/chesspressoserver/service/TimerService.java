@@ -0,0 +1,182 @@
+package org.example.chesspressoserver.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gemeinsamer Scheduler für verzögerte Aktionen als Hashed Timing Wheel:
+ * ein einzelner Thread tickt über einen Ring von Buckets, Timer werden per Deadline
+ * einem Bucket zugeordnet (Timer länger als eine Umdrehung zählen Runden herunter).
+ * Anlegen und Abbrechen sind O(1), es gibt keinen Thread und keinen Task pro Timer.
+ * Fällige Aktionen laufen auf virtuellen Threads, damit sie den Tick nicht blockieren.
+ */
+@Service
+public class TimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerService.class);
+
+    private final long tickNanos;
+    private final List<List<Timeout>> wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ExecutorService callbacks = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("timer-task-", 1).factory());
+
+    private volatile boolean running;
+    private Thread worker;
+    private long startNanos;
+    private long tick;
+
+    public TimerService(@Value("${chesspresso.timer.tick-ms:10}") long tickMs,
+                        @Value("${chesspresso.timer.wheel-size:512}") int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1; // nächste Zweierpotenz
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        startNanos = System.nanoTime();
+        worker = new Thread(this::runWheel, "timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        callbacks.shutdown();
+    }
+
+    // Aktion nach 'delay' ausführen; der zurückgegebene Timeout kann abgebrochen werden
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("TimerService is not running");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    // Anzahl geplanter, noch nicht ausgelöster oder abgebrochener Timer
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private void runWheel() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            transferAdded();
+            expire(wheel.get((int) (tick & mask)), (tick + 1) * tickNanos);
+            tick++;
+        }
+    }
+
+    // Neue Timer in ihre Buckets einsortieren (nur der Wheel-Thread fasst die Buckets an)
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() != Timeout.WAITING) continue;
+            long ticks = Math.max(timeout.deadline / tickNanos, tick); // überfällige in den aktuellen Tick
+            timeout.remainingRounds = (ticks - tick) / wheel.size();
+            wheel.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long now) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.state.get() != Timeout.WAITING) continue;
+            if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+                    pending.decrementAndGet();
+                    callbacks.execute(timeout::run);
+                }
+                continue;
+            }
+            timeout.remainingRounds--;
+            bucket.set(kept++, timeout);
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * Handle auf einen geplanten Timer.
+     */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // true, wenn der Timer dadurch abgebrochen wurde (nicht schon ausgelöst)
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Timer-Aktion fehlgeschlagen", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.chesspressoserver.WebSocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundLimiterTest {
+
+    private static final String SESSION = "s1";
+
+    private final List<Message<?>> resent = new ArrayList<>();
+    private OutboundLimiter limiter;
+    private WebSocketSession session;
+    private WebSocketSession counting;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        limiter = new OutboundLimiter((message, timeout) -> resent.add(message), 2, 1024);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION);
+
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        limiter.decorate(handler).afterConnectionEstablished(session);
+        ArgumentCaptor<WebSocketSession> captor = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(captor.capture());
+        counting = captor.getValue();
+    }
+
+    @Test
+    void messagesWithinLimitPassThrough() {
+        assertThat(limiter.preSend(frame("/topic/game/ABC/move"), null)).isNotNull();
+        assertThat(limiter.preSend(frame("/topic/game/ABC/move"), null)).isNotNull();
+
+        assertThat(limiter.getCounters()).containsEntry("pendingMessages", 2L).containsEntry("pendingBytes", 8L);
+    }
+
+    @Test
+    void presenceOverLimitIsCoalescedAndResentAfterWrite() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        assertThat(limiter.preSend(frame("/topic/players"), null)).isNull();
+        Message<?> latest = frame("/topic/players");
+        assertThat(limiter.preSend(latest, null)).isNull();
+        assertThat(limiter.getCounters()).containsEntry("presenceCoalesced", 2L);
+
+        counting.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/game/ABC/move\n\n{}"));
+
+        assertThat(resent).containsExactly(latest);
+        assertThat(limiter.getCounters()).containsEntry("pendingMessages", 1L);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void statusUpdateOverLimitDoesNotReplacePresenceDiff() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        Message<?> diff = frame("/topic/players", "{\"version\":7,\"type\":\"presence-diff\"}");
+        Message<?> status = frame("/topic/players", "{\"type\":\"status-update\",\"status\":\"online\"}");
+        assertThat(limiter.preSend(diff, null)).isNull();
+        assertThat(limiter.preSend(status, null)).isNull();
+
+        counting.sendMessage(new TextMessage("MESSAGE\n\n{}"));
+
+        assertThat(resent).containsExactly(diff, status);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void presenceSnapshotOnResolvedUserDestinationIsCoalesced() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        // So kommt /user/queue/players nach dem UserDestinationResolver im Outbound-Kanal an
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION);
+        accessor.setDestination("/queue/players-user" + SESSION);
+        accessor.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, "/user/queue/players");
+        Message<?> snapshot = MessageBuilder.createMessage("[42]".getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+
+        assertThat(limiter.preSend(snapshot, null)).isNull();
+        assertThat(limiter.getCounters()).containsEntry("presenceCoalesced", 1L).containsEntry("slowConsumerDisconnects", 0L);
+
+        counting.sendMessage(new TextMessage("MESSAGE\n\n{}"));
+
+        assertThat(resent).containsExactly(snapshot);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void boardStateOverLimitKeepsOnlyNewest() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        limiter.preSend(frame("/topic/game/ABC/board"), null);
+        Message<?> newest = frame("/topic/game/ABC/board");
+        limiter.preSend(newest, null);
+        assertThat(limiter.getCounters()).containsEntry("boardStatesDropped", 2L);
+
+        counting.sendMessage(new TextMessage("MESSAGE\n\n{}"));
+
+        assertThat(resent).containsExactly(newest);
+    }
+
+    @Test
+    void heartbeatsDoNotFreeSpace() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        counting.sendMessage(new TextMessage("\n"));
+
+        assertThat(limiter.getCounters()).containsEntry("pendingMessages", 1L);
+    }
+
+    @Test
+    void moveOverLimitDisconnectsForResync() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+
+        assertThat(limiter.preSend(frame("/topic/game/ABC/move"), null)).isNull();
+
+        verify(session, timeout(1000)).close(OutboundLimiter.RESYNC);
+        assertThat(limiter.getCounters()).containsEntry("slowConsumerDisconnects", 1L);
+        // Nach dem Entschluss zu trennen wird nichts mehr zugestellt
+        assertThat(limiter.preSend(frame("/topic/players"), null)).isNull();
+    }
+
+    @Test
+    void closedSessionIsForgotten() throws Exception {
+        limiter.preSend(frame("/topic/game/ABC/move"), null);
+        limiter.decorate(mock(WebSocketHandler.class)).afterConnectionClosed(session, null);
+
+        assertThat(limiter.getCounters()).containsEntry("sessions", 0L).containsEntry("pendingMessages", 0L);
+        assertThat(limiter.preSend(frame("/topic/game/ABC/move"), null)).isNotNull();
+    }
+
+    // 4 Bytes Payload
+    private static Message<?> frame(String destination) {
+        return frame(destination, "[42]");
+    }
+
+    private static Message<?> frame(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.chesspressoserver.WebSocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.chesspressoserver.service.BroadcastService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SpectatorHubTest {
+
+    private static final String LOBBY = "ABC123";
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private Message<?> delivered;
+    private SpectatorSnapshotSource snapshotSource;
+    private SpectatorHub hub;
+
+    @BeforeEach
+    void setUp() {
+        BroadcastService broadcastService = new BroadcastService(mock(SimpMessagingTemplate.class), new ObjectMapper());
+        hub = new SpectatorHub((message, timeout) -> {
+            delivered = message;
+            return sent.add(message);
+        }, broadcastService, 4, 50, 2);
+        snapshotSource = mock(SpectatorSnapshotSource.class);
+        when(snapshotSource.isLive(LOBBY)).thenReturn(true);
+        hub.setSnapshotSource(snapshotSource);
+    }
+
+    @Test
+    void publishWithoutSpectatorsDoesNothing() {
+        hub.publish(LOBBY, 1, Map.of("seq", 1));
+        hub.flushAll();
+
+        assertThat(hub.isWatched(LOBBY)).isFalse();
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void newSpectatorGetsSnapshotThenBatchedDeltas() {
+        hub.addSpectator(LOBBY, "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        hub.flushAll();
+        verify(snapshotSource).requestSnapshot(LOBBY);
+        assertThat(sent).isEmpty();
+
+        hub.publishSnapshot(LOBBY, 0, Map.of("type", "board"));
+        hub.flushAll();
+        assertThat(payloads()).containsExactly("[{\"type\":\"board\"}]");
+        acknowledge();
+
+        hub.publish(LOBBY, 1, Map.of("seq", 1));
+        hub.publish(LOBBY, 2, Map.of("seq", 2));
+        hub.flushAll();
+        assertThat(payloads()).containsExactly("[{\"seq\":1},{\"seq\":2}]");
+    }
+
+    @Test
+    void spectatorsOnSameStateShareOneBatch() {
+        hub.addSpectator(LOBBY, "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        hub.addSpectator(LOBBY, "s2", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        hub.publishSnapshot(LOBBY, 0, Map.of("type", "board"));
+
+        hub.flushAll();
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0).getPayload()).isSameAs(sent.get(1).getPayload());
+    }
+
+    @Test
+    void slowSpectatorIsCoalescedToSnapshot() {
+        hub.addSpectator(LOBBY, "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        hub.publishSnapshot(LOBBY, 0, Map.of("type", "board"));
+        hub.flushAll();
+        sent.clear();
+
+        // Erste Nachricht noch nicht verarbeitet: keine weiteren Frames
+        for (int seq = 1; seq <= 6; seq++) {
+            hub.publish(LOBBY, seq, Map.of("seq", seq));
+        }
+        hub.flushAll();
+        assertThat(sent).isEmpty();
+
+        // Zustellung bestätigt, aber Ring (4) überholt: neuer Snapshot statt der Zwischenstände
+        acknowledge();
+        hub.flushAll();
+        assertThat(sent).isEmpty();
+        verify(snapshotSource).requestSnapshot(LOBBY);
+
+        hub.publishSnapshot(LOBBY, 6, Map.of("type", "board", "seq", 6));
+        hub.flushAll();
+        assertThat(payloads()).hasSize(1);
+        assertThat(payloads().get(0)).contains("\"board\"").doesNotContain("{\"seq\":5}");
+    }
+
+    @Test
+    void endedGameSendsFinalFrameAndRemovesFeed() {
+        hub.addSpectator(LOBBY, "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        hub.publishSnapshot(LOBBY, 0, Map.of("type", "board"));
+        hub.flushAll();
+        sent.clear();
+
+        hub.publish(LOBBY, 1, Map.of("seq", 1));
+        hub.endGame(LOBBY, Map.of("type", "gameEnd"));
+        hub.flushAll();
+
+        assertThat(payloads()).containsExactly("[{\"seq\":1},{\"type\":\"gameEnd\"}]");
+        assertThat(hub.isWatched(LOBBY)).isFalse();
+    }
+
+    @Test
+    void subscriptionToUnknownGameIsRejected() {
+        assertThat(hub.addSpectator("NOGAME", "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + "NOGAME")).isFalse();
+        hub.flushAll();
+
+        assertThat(hub.isWatched("NOGAME")).isFalse();
+        verify(snapshotSource, never()).requestSnapshot(anyString());
+    }
+
+    @Test
+    void subscriptionsPerSessionAreCapped() {
+        when(snapshotSource.isLive(anyString())).thenReturn(true);
+
+        assertThat(hub.addSpectator("G1", "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + "G1")).isTrue();
+        assertThat(hub.addSpectator("G2", "s1", "sub-1", SpectatorHub.DESTINATION_PREFIX + "G2")).isTrue();
+        assertThat(hub.addSpectator("G3", "s1", "sub-2", SpectatorHub.DESTINATION_PREFIX + "G3")).isFalse();
+        // andere Sessions sind nicht betroffen
+        assertThat(hub.addSpectator("G3", "s2", "sub-0", SpectatorHub.DESTINATION_PREFIX + "G3")).isTrue();
+
+        assertThat(hub.getSpectatorCount("G3")).isEqualTo(1);
+    }
+
+    @Test
+    void feedOfVanishedGameIsRemovedInsteadOfPolled() {
+        hub.addSpectator(LOBBY, "s1", "sub-0", SpectatorHub.DESTINATION_PREFIX + LOBBY);
+        when(snapshotSource.isLive(LOBBY)).thenReturn(false);
+
+        hub.flushAll();
+        hub.flushAll();
+
+        verify(snapshotSource, never()).requestSnapshot(LOBBY);
+        assertThat(hub.isWatched(LOBBY)).isFalse();
+        assertThat(sent).isEmpty();
+    }
+
+    private List<String> payloads() {
+        List<String> result = sent.stream().map(m -> new String((byte[]) m.getPayload(), StandardCharsets.UTF_8)).toList();
+        sent.clear();
+        return result;
+    }
+
+    // Outbound-Kanal meldet die letzte Zuschauer-Nachricht als verarbeitet
+    private void acknowledge() {
+        hub.afterMessageHandled(delivered, null, null, null);
+    }
+}
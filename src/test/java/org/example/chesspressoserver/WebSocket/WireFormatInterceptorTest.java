@@ -0,0 +1,72 @@
+package org.example.chesspressoserver.WebSocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatInterceptorTest {
+
+    private static final String MOVE_TOPIC = "/topic/game/ABC123/move";
+
+    private WireFormatInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new WireFormatInterceptor();
+    }
+
+    @Test
+    void subscribeWithFormatIsRedirected() {
+        Message<?> result = interceptor.preSend(subscribe("s1", "sub-0", MOVE_TOPIC, "binary"), null);
+
+        assertThat(StompHeaderAccessor.wrap(result).getDestination()).isEqualTo(MOVE_TOPIC + ".bin");
+        assertThat(interceptor.hasSubscribers(MOVE_TOPIC + ".bin")).isTrue();
+        assertThat(interceptor.hasSubscribers(MOVE_TOPIC + ".fen")).isFalse();
+    }
+
+    @Test
+    void jsonAndUnsupportedTopicsAreUnchanged() {
+        Message<?> plain = subscribe("s1", "sub-0", MOVE_TOPIC, null);
+        Message<?> other = subscribe("s1", "sub-1", "/topic/game/ABC123/possible-moves", "fen");
+
+        assertThat(interceptor.preSend(plain, null)).isSameAs(plain);
+        assertThat(interceptor.preSend(other, null)).isSameAs(other);
+    }
+
+    @Test
+    void unsubscribeAndDisconnectReleaseSubscribers() {
+        interceptor.preSend(subscribe("s1", "sub-0", MOVE_TOPIC, "fen"), null);
+        interceptor.preSend(subscribe("s2", "sub-0", MOVE_TOPIC, "fen"), null);
+
+        interceptor.preSend(command(StompCommand.UNSUBSCRIBE, "s1", "sub-0"), null);
+        assertThat(interceptor.hasSubscribers(MOVE_TOPIC + ".fen")).isTrue();
+
+        interceptor.preSend(command(StompCommand.DISCONNECT, "s2", null), null);
+        assertThat(interceptor.hasSubscribers(MOVE_TOPIC + ".fen")).isFalse();
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination, String format) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        if (format != null) {
+            accessor.setNativeHeader(WireFormat.HEADER, format);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> command(StompCommand command, String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
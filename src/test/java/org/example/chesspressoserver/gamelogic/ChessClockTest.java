@@ -0,0 +1,54 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessClockTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void onlyRunningSideLosesTime() {
+        ChessClock clock = new ChessClock(60 * SECOND);
+        clock.start(TeamColor.WHITE, 0);
+
+        assertEquals(50 * SECOND, clock.remainingNanos(TeamColor.WHITE, 10 * SECOND));
+        assertEquals(60 * SECOND, clock.remainingNanos(TeamColor.BLACK, 10 * SECOND));
+
+        clock.switchSide(10 * SECOND);
+        assertEquals(TeamColor.BLACK, clock.getRunningSide());
+        assertEquals(50 * SECOND, clock.remainingNanos(TeamColor.WHITE, 30 * SECOND));
+        assertEquals(40 * SECOND, clock.remainingNanos(TeamColor.BLACK, 30 * SECOND));
+    }
+
+    @Test
+    void flagFallsWhenTimeIsUsedUp() {
+        ChessClock clock = new ChessClock(5 * SECOND);
+        clock.start(TeamColor.WHITE, 0);
+
+        assertFalse(clock.isFlagged(TeamColor.WHITE, 4 * SECOND));
+        assertTrue(clock.isFlagged(TeamColor.WHITE, 5 * SECOND));
+
+        clock.stop(6 * SECOND);
+        assertNull(clock.getRunningSide());
+        assertEquals(-SECOND, clock.remainingNanos(TeamColor.WHITE, 100 * SECOND));
+    }
+
+    @Test
+    void applyMoveSwitchesClock() {
+        GameController game = new GameController();
+        ChessClock clock = new ChessClock(60 * SECOND);
+        clock.start(TeamColor.WHITE, System.nanoTime());
+        game.setClock(clock);
+
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+
+        assertEquals(TeamColor.BLACK, clock.getRunningSide());
+        assertFalse(game.isFlagFallen());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+            "8/8/8/8/8/8/8/K6k b - - 42 97"
+    })
+    void toFenRoundTrip(String fen) {
+        assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+    }
+
+    @Test
+    void newGameMatchesStartPosition() {
+        assertEquals(Fen.START_POSITION, Fen.toFen(new GameController()));
+    }
+
+    @Test
+    void countersFollowMoves() {
+        GameController game = new GameController();
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(game));
+
+        game.applyMove(Position.of("G8"), Position.of("F6"), null);
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", Fen.toFen(game));
+
+        game.unmakeMove();
+        assertEquals(TeamColor.BLACK, game.getAktiveTeam());
+        assertEquals(1, game.getFullmoveNumber());
+    }
+
+    @Test
+    void rejectsMalformedFen() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w - -"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+    }
+}
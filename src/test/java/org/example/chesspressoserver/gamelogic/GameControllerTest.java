@@ -6,6 +6,7 @@ import org.example.chesspressoserver.models.gamemodels.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -167,4 +168,82 @@ class GameControllerTest {
         assertFalse(controller.getCastlingRights().isWhiteQueenSide());
     }
 
+    @Test
+    void testMakeAndUnmakeMoveRestoresState() {
+        GameController game = new GameController();
+        long occupiedBefore = game.getBoard().getOccupied();
+
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+        game.applyMove(Position.of("D7"), Position.of("D5"), null);
+        game.applyMove(Position.of("E4"), Position.of("D5"), null); // exd5
+
+        assertEquals(3, game.getUndoDepth());
+        assertEquals(TeamColor.BLACK, game.getAktiveTeam());
+        assertEquals(0, game.getMovesSinceCapture());
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+
+        assertEquals(0, game.getUndoDepth());
+        assertEquals(TeamColor.WHITE, game.getAktiveTeam());
+        assertEquals(occupiedBefore, game.getBoard().getOccupied());
+        assertNull(game.getLastMove());
+        assertEquals(PieceType.PAWN, game.getBoard().getPiece(6, 3).getType());
+        assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    void testThreefoldRepetitionIsDetected() {
+        GameController game = new GameController();
+        long startKey = game.getPositionKey();
+        String[][] moves = {{"G1", "F3"}, {"G8", "F6"}, {"F3", "G1"}, {"F6", "G8"},
+                {"G1", "F3"}, {"G8", "F6"}, {"F3", "G1"}, {"F6", "G8"}};
+
+        for (String[] m : moves) {
+            assertNull(game.getDrawReason(game.getAktiveTeam()));
+            game.applyMove(Position.of(m[0]), Position.of(m[1]), null);
+        }
+
+        assertEquals(startKey, game.getPositionKey());
+        assertEquals(3, game.getRepetitionCount());
+        assertEquals(DrawReason.THREEFOLD_REPETITION, game.getDrawReason(game.getAktiveTeam()));
+        assertTrue(game.isStalemate(game.getAktiveTeam()));
+    }
+
+    @Test
+    void testLegalMoveCacheIsReusedUntilPositionChanges() {
+        GameController game = new GameController();
+
+        List<String> first = game.getMovesForRequestAsString(Position.of("E2"));
+        assertEquals(List.of("E3", "E4"), first);
+        assertSame(first, game.getMovesForRequestAsString(Position.of("E2")));
+        assertTrue(game.isLegalMove(Position.of("G1"), Position.of("F3")));
+        assertFalse(game.isLegalMove(Position.of("E2"), Position.of("E5")));
+        assertTrue(game.getMovesForRequestAsString(Position.of("E7")).isEmpty()); // Schwarz nicht am Zug
+
+        LegalMoveCache before = game.getLegalMoveCache();
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+
+        assertNotSame(before, game.getLegalMoveCache());
+        assertEquals(game.getPositionKey(), game.getLegalMoveCache().getPositionKey());
+        assertEquals(20, game.getLegalMoveCache().getMoveCount());
+    }
+
+    @Test
+    void testChangedSquaresCoverCastlingAndEnPassant() {
+        int[] squares = new int[4];
+        GameController game = Fen.parse("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        assertEquals(0, game.getChangedSquares(squares));
+
+        game.applyMove(Position.of("E5"), Position.of("D6"), null);
+        assertEquals(3, game.getChangedSquares(squares));
+        assertArrayEquals(new int[]{Position.of("E5").getSquare(), Position.of("D6").getSquare(), Position.of("D5").getSquare()},
+                Arrays.copyOf(squares, 3));
+
+        game.applyMove(Position.of("E8"), Position.of("C8"), null);
+        assertEquals(4, game.getChangedSquares(squares));
+        assertArrayEquals(new int[]{Position.of("E8").getSquare(), Position.of("C8").getSquare(),
+                Position.of("A8").getSquare(), Position.of("D8").getSquare()}, squares);
+    }
 }
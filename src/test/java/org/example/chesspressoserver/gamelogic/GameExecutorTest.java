@@ -0,0 +1,100 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final GameExecutor gameExecutor = new GameExecutor(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void tasksOfOneLobbyRunSeriallyInOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 1000;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> seen = new ArrayList<>(); // bewusst nicht synchronisiert
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int value = producer * perProducer + i;
+                    gameExecutor.execute("LOBBY1", () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        seen.add(value);
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        assertEquals(producers * perProducer, seen.size());
+        // Reihenfolge pro Producer bleibt erhalten
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            List<Integer> own = seen.stream().filter(v -> v / perProducer == producer).toList();
+            for (int i = 0; i < perProducer; i++) {
+                assertEquals(producer * perProducer + i, own.get(i));
+            }
+        }
+    }
+
+    @Test
+    void differentLobbiesRunInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch finished = new CountDownLatch(2);
+        Runnable task = () -> {
+            bothStarted.countDown();
+            try {
+                // blockiert, bis auch die andere Lobby läuft
+                if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                    finished.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        gameExecutor.execute("LOBBY1", task);
+        gameExecutor.execute("LOBBY2", task);
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingTaskDoesNotBlockMailbox() throws Exception {
+        CountDownLatch next = new CountDownLatch(1);
+        gameExecutor.execute("LOBBY1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        gameExecutor.execute("LOBBY1", next::countDown);
+
+        assertTrue(next.await(5, TimeUnit.SECONDS));
+    }
+}
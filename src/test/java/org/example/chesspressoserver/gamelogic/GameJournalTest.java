@@ -0,0 +1,116 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    private static final String[][] MOVES = {
+            {"E2", "E4"}, {"E7", "E5"}, {"G1", "F3"}, {"B8", "C6"}, {"F1", "C4"}, {"G8", "F6"}, {"E1", "G1"}
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversGameFromSnapshotAndJournalTail() {
+        UUID gameId = UUID.randomUUID();
+        GameController game = playMoves(new GameJournal(dir.toString(), true, 4), "ABC123", gameId);
+
+        Map<String, GameController> recovered = new GameJournal(dir.toString(), true, 4).recoverAll();
+
+        GameController restored = recovered.get("ABC123");
+        assertNotNull(restored);
+        assertEquals(gameId, restored.getGameId());
+        assertEquals(Fen.toFen(game), Fen.toFen(restored));
+        assertEquals(game.getPositionKey(), restored.getPositionKey());
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfJournal() throws Exception {
+        GameController game = playMoves(new GameJournal(dir.toString(), true, 100), "ABC123", null);
+        Files.write(dir.resolve("ABC123.journal"), new byte[]{'M', 0, 1}, StandardOpenOption.APPEND);
+
+        GameController restored = new GameJournal(dir.toString(), true, 100).recoverAll().get("ABC123");
+
+        assertNotNull(restored);
+        assertEquals(Fen.toFen(game), Fen.toFen(restored));
+    }
+
+    @Test
+    void deletedGameIsNotRecovered() {
+        GameJournal journal = new GameJournal(dir.toString(), true, 4);
+        playMoves(journal, "ABC123", null);
+        journal.delete("ABC123");
+
+        assertTrue(new GameJournal(dir.toString(), true, 4).recoverAll().isEmpty());
+    }
+
+    @Test
+    void recoversLobbyInfoAndClock() {
+        GameJournal journal = new GameJournal(dir.toString(), true, 4);
+        GameJournal.LobbyInfo info = new GameJournal.LobbyInfo("white-id", "black-id", "SHORT");
+        GameController game = new GameController();
+        journal.start("ABC123", null, info, game);
+        ChessClock clock = new ChessClock(TimeUnit.SECONDS.toNanos(300));
+        clock.start(TeamColor.WHITE, System.nanoTime());
+        game.setClock(clock);
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+        journal.append("ABC123", game.getLastMoveCode(), game);
+        journal.flush();
+        journal.close();
+
+        List<GameJournal.RecoveredGame> recovered = new GameJournal(dir.toString(), true, 4).recoverGames();
+
+        assertEquals(1, recovered.size());
+        GameJournal.RecoveredGame restored = recovered.get(0);
+        assertEquals(info, restored.lobby());
+        assertTrue(restored.whiteRemainingMillis() > 290_000 && restored.whiteRemainingMillis() <= 300_000);
+        // Schwarz ist am Zug, seine Uhr lief beim Schreiben schon wenige Mikrosekunden
+        assertTrue(restored.blackRemainingMillis() > 299_000);
+    }
+
+    @Test
+    void clockSurvivesCompactionOnRecovery() {
+        GameJournal journal = new GameJournal(dir.toString(), true, 4);
+        GameController game = new GameController();
+        journal.start("ABC123", null, new GameJournal.LobbyInfo("w", "b", null), game);
+        ChessClock clock = new ChessClock(TimeUnit.SECONDS.toNanos(60));
+        clock.start(TeamColor.WHITE, System.nanoTime());
+        game.setClock(clock);
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+        journal.append("ABC123", game.getLastMoveCode(), game);
+        journal.close();
+
+        // erster Neustart kompaktiert die Datei, der zweite muss die Uhr trotzdem noch finden
+        new GameJournal(dir.toString(), true, 4).recoverGames();
+        GameJournal.RecoveredGame restored = new GameJournal(dir.toString(), true, 4).recoverGames().get(0);
+
+        assertNull(restored.lobby().gameTime());
+        assertTrue(restored.blackRemainingMillis() > 59_000);
+    }
+
+    private GameController playMoves(GameJournal journal, String lobbyId, UUID gameId) {
+        GameController game = new GameController(gameId);
+        journal.start(lobbyId, gameId, game);
+        for (String[] move : MOVES) {
+            game.applyMove(Position.of(move[0]), Position.of(move[1]), null);
+            journal.append(lobbyId, game.getLastMoveCode(), game);
+            journal.flush();
+        }
+        journal.close();
+        return game;
+    }
+}
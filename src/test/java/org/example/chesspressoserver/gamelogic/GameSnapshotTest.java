@@ -0,0 +1,47 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+
+    @Test
+    void snapshotRestoresPositionAndCounters() {
+        GameController game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq - 7 23");
+
+        byte[] snapshot = GameSnapshot.write(game);
+        GameController restored = GameSnapshot.restore(snapshot);
+
+        assertEquals(GameSnapshot.SIZE, snapshot.length);
+        assertEquals(Fen.toFen(game), Fen.toFen(restored));
+        assertEquals(game.getPositionKey(), restored.getPositionKey());
+        assertEquals(game.getMovesSincePawnMove(), restored.getMovesSincePawnMove());
+        assertEquals(game.getMovesSinceCapture(), restored.getMovesSinceCapture());
+    }
+
+    @Test
+    void snapshotKeepsEnPassantAndGameId() {
+        GameController game = new GameController();
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+        game.applyMove(Position.of("A7"), Position.of("A6"), null);
+        game.applyMove(Position.of("E4"), Position.of("E5"), null);
+        game.applyMove(Position.of("D7"), Position.of("D5"), null);
+
+        UUID gameId = UUID.randomUUID();
+        GameController restored = GameSnapshot.restore(gameId, GameSnapshot.write(game));
+
+        assertEquals(gameId, restored.getGameId());
+        assertEquals(Position.of("D6").getSquare(), restored.getEnPassantSquare());
+        assertTrue(restored.isLegalMove(Position.of("E5"), Position.of("D6")));
+        assertEquals(game.getPositionKey(), restored.getPositionKey());
+    }
+
+    @Test
+    void rejectsWrongLength() {
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.restore(new byte[12]));
+    }
+}
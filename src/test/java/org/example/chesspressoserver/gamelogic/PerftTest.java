@@ -0,0 +1,56 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    // Referenzwerte: https://www.chessprogramming.org/Perft_Results
+    @ParameterizedTest(name = "{0} depth {2}")
+    @CsvSource(delimiter = '|', value = {
+            "start    | rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1                  | 1 | 20",
+            "start    | rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1                  | 2 | 400",
+            "start    | rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1                  | 3 | 8902",
+            "start    | rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1                  | 4 | 197281",
+            "kiwipete | r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1      | 1 | 48",
+            "kiwipete | r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1      | 2 | 2039",
+            "kiwipete | r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1      | 3 | 97862",
+            "pos3     | 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1                                  | 1 | 14",
+            "pos3     | 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1                                  | 2 | 191",
+            "pos3     | 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1                                  | 3 | 2812",
+            "pos3     | 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1                                  | 4 | 43238",
+            "pos4     | r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1           | 1 | 6",
+            "pos4     | r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1           | 2 | 264",
+            "pos4     | r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1           | 3 | 9467",
+            "pos5     | rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8                  | 1 | 44",
+            "pos5     | rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8                  | 2 | 1486",
+            "pos5     | rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8                  | 3 | 62379",
+            "pos6     | r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10   | 1 | 46",
+            "pos6     | r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10   | 2 | 2079",
+            "pos6     | r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10   | 3 | 89890"
+    })
+    void perftMatchesReference(String name, String fen, int depth, long expected) {
+        GameController game = Fen.parse(fen);
+        long positionKey = game.getPositionKey();
+
+        assertEquals(expected, new Perft(game, depth).count(depth));
+        // make/unmake muss die Stellung exakt wiederherstellen
+        assertEquals(positionKey, game.getPositionKey());
+        assertEquals(0, game.getUndoDepth());
+    }
+
+    @Test
+    void divideSumsUpToPerft() {
+        GameController game = Fen.parse(Fen.START_POSITION);
+        Map<String, Long> divide = new Perft(game, 3).divide(3);
+
+        assertEquals(20, divide.size());
+        assertEquals(8902L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600L, divide.get("E2E4"));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.chesspressoserver.gamelogic;
+
+import org.example.chesspressoserver.models.gamemodels.DrawReason;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFramesTest {
+
+    @Test
+    void textFrameCarriesUciMoveAndFen() {
+        GameController game = new GameController();
+        game.applyMove(Position.of("E2"), Position.of("E4"), null);
+
+        String frame = WireFrames.text(game, game.getPlyCount(), game.getLastMoveCode(), -1, false, null);
+
+        assertEquals("1 e2e4 - - rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", frame);
+    }
+
+    @Test
+    void textFrameMarksPromotionAndDraw() {
+        GameController game = Fen.parse("8/4P3/8/8/8/8/k7/7K w - - 0 40");
+        game.applyMove(Position.of("E7"), Position.of("E8"), PieceType.QUEEN);
+
+        String frame = WireFrames.text(game, 7, game.getLastMoveCode(), -1, false, DrawReason.STALEMATE);
+
+        assertTrue(frame.startsWith("7 e7e8q - STALEMATE 4Q3/"), frame);
+    }
+
+    @Test
+    void binaryFrameEmbedsSnapshot() {
+        GameController game = new GameController();
+        game.applyMove(Position.of("G1"), Position.of("F3"), null);
+        int move = game.getLastMoveCode();
+
+        byte[] frame = WireFrames.binary(WireFrames.TYPE_MOVE, game, 1, move, -1, false, null, System.nanoTime());
+
+        assertEquals(WireFrames.BINARY_SIZE, frame.length);
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        assertEquals(WireFrames.TYPE_MOVE, in.get());
+        assertEquals(1, in.getShort());
+        assertEquals(move, in.getInt());
+        byte[] snapshot = new byte[GameSnapshot.SIZE];
+        in.get(snapshot);
+        assertArrayEquals(GameSnapshot.write(game), snapshot);
+        assertEquals(0xFF, in.get() & 0xFF);
+        assertEquals(0, in.get());
+        assertEquals(-1, in.getInt());
+        assertEquals(-1, in.getInt());
+        assertEquals(Fen.toFen(game), Fen.toFen(GameSnapshot.restore(Arrays.copyOfRange(frame, 7, 47))));
+    }
+}
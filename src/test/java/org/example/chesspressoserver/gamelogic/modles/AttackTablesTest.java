@@ -0,0 +1,39 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttackTablesTest {
+
+    @Test
+    void knightInCornerHasTwoTargets() {
+        // a1 -> b3, c2
+        assertEquals(Bitboards.bit(17) | Bitboards.bit(10), AttackTables.knightAttacks(0));
+    }
+
+    @Test
+    void rookAttacksStopAtFirstBlocker() {
+        // Turm a1, Blocker auf a4 und d1
+        long occupied = Bitboards.bit(24) | Bitboards.bit(3);
+        long expected = Bitboards.bit(8) | Bitboards.bit(16) | Bitboards.bit(24)
+                | Bitboards.bit(1) | Bitboards.bit(2) | Bitboards.bit(3);
+        assertEquals(expected, AttackTables.rookAttacks(0, occupied));
+    }
+
+    @Test
+    void bishopAttacksOnEmptyBoardCoverBothDiagonals() {
+        // Läufer d4 auf leerem Brett: 13 Felder
+        assertEquals(13, Long.bitCount(AttackTables.bishopAttacks(Bitboards.square(3, 3), 0L)));
+    }
+
+    @Test
+    void betweenAndLine() {
+        int a1 = 0;
+        int h8 = 63;
+        assertEquals(6, Long.bitCount(AttackTables.between(a1, h8)));
+        assertEquals(0L, AttackTables.between(a1, Bitboards.square(1, 2))); // Springerabstand
+        assertEquals(0L, AttackTables.line(a1, Bitboards.square(1, 2)));
+        assertEquals(8, Long.bitCount(AttackTables.line(a1, h8)));
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.Position;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        board.start();
+    }
+
+    @Test
+    void startPositionFillsBitboards() {
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(TeamColor.BLACK));
+        assertEquals(32, Long.bitCount(board.getOccupied()));
+        assertEquals(0x000000000000FF00L, board.getPieces(TeamColor.WHITE, PieceType.PAWN));
+        assertEquals(new Position(4, 0), board.getKingPosition(TeamColor.WHITE));
+        assertEquals(new Position(4, 7), board.getKingPosition(TeamColor.BLACK));
+    }
+
+    @Test
+    void setPieceReplacesCapturedPieceInBitboards() {
+        ChessPiece knight = board.getPiece(0, 1);
+        board.removePiece(0, 1);
+        board.setPiece(6, 0, knight); // Springer "schlägt" auf a7
+
+        assertTrue(board.checkEmpty(0, 1));
+        assertSame(knight, board.getPiece(6, 0));
+        assertEquals(7, Long.bitCount(board.getPieces(TeamColor.BLACK, PieceType.PAWN)));
+        assertNotEquals(0L, board.getPieces(TeamColor.WHITE, PieceType.KNIGHT) & Bitboards.bit(48));
+        assertEquals(31, Long.bitCount(board.getOccupied()));
+    }
+
+    @Test
+    void getKingPositionReturnsNullWithoutKing() {
+        board.removePiece(7, 4);
+        assertNull(board.getKingPosition(TeamColor.BLACK));
+    }
+}
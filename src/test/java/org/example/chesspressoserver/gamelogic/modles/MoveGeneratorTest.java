@@ -0,0 +1,92 @@
+package org.example.chesspressoserver.gamelogic.modles;
+
+import org.example.chesspressoserver.models.gamemodels.ChessPiece;
+import org.example.chesspressoserver.models.gamemodels.PieceType;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    private Board board;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        board.start();
+    }
+
+    @Test
+    void startPositionHasTwentyMoves() {
+        assertEquals(20, MoveGenerator.generateLegal(board, TeamColor.WHITE, new CastlingRights(), -1, -1L, moves));
+        assertEquals(20, MoveGenerator.generateLegal(board, TeamColor.BLACK, new CastlingRights(), -1, -1L, moves));
+    }
+
+    @Test
+    void pinnedKnightHasNoMoves() {
+        // Springer e2 gefesselt durch Turm e7 (weißer König e1)
+        board.removePiece(1, 4);
+        board.setPiece(1, 4, new ChessPiece(PieceType.KNIGHT, TeamColor.WHITE));
+        board.removePiece(6, 4);
+        board.setPiece(6, 4, new ChessPiece(PieceType.ROOK, TeamColor.BLACK));
+        board.removePiece(7, 4); // schwarzen König nach d8 versetzen
+        board.setPiece(7, 3, new ChessPiece(PieceType.KING, TeamColor.BLACK));
+
+        long e2 = Bitboards.bit(Bitboards.square(4, 1));
+        assertEquals(0, MoveGenerator.generateLegal(board, TeamColor.WHITE, new CastlingRights(), -1, e2, moves));
+    }
+
+    @Test
+    void promotionProducesFourCodes() {
+        Board empty = new Board();
+        empty.setPiece(0, 4, new ChessPiece(PieceType.KING, TeamColor.WHITE));
+        empty.setPiece(7, 7, new ChessPiece(PieceType.KING, TeamColor.BLACK));
+        empty.setPiece(6, 0, new ChessPiece(PieceType.PAWN, TeamColor.WHITE));
+
+        long a7 = Bitboards.bit(Bitboards.square(0, 6));
+        int count = MoveGenerator.generateLegal(empty, TeamColor.WHITE, new CastlingRights(), -1, a7, moves);
+
+        assertEquals(4, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(Bitboards.square(0, 7), MoveCodes.to(moves[i]));
+            assertNotNull(MoveCodes.promotion(moves[i]));
+        }
+    }
+
+    @Test
+    void moveCodeRoundTrip() {
+        int move = MoveCodes.encode(12, 28, MoveCodes.DOUBLE_PUSH);
+        assertEquals(12, MoveCodes.from(move));
+        assertEquals(28, MoveCodes.to(move));
+        assertFalse(MoveCodes.isCapture(move));
+        assertNull(MoveCodes.promotion(move));
+
+        int promo = MoveCodes.encode(52, 61, MoveCodes.CAPTURE, PieceType.KNIGHT);
+        assertTrue(MoveCodes.isCapture(promo));
+        assertEquals(PieceType.KNIGHT, MoveCodes.promotion(promo));
+    }
+
+    @Test
+    void masksExposeCheckersAndPinRays() {
+        Board empty = new Board();
+        empty.setPiece(0, 4, new ChessPiece(PieceType.KING, TeamColor.WHITE));    // e1
+        empty.setPiece(1, 4, new ChessPiece(PieceType.BISHOP, TeamColor.WHITE));  // e2
+        empty.setPiece(7, 4, new ChessPiece(PieceType.ROOK, TeamColor.BLACK));    // e8 fesselt e2
+        empty.setPiece(3, 7, new ChessPiece(PieceType.BISHOP, TeamColor.BLACK));  // h4 gibt Schach
+        empty.setPiece(7, 0, new ChessPiece(PieceType.KING, TeamColor.BLACK));
+
+        MoveMasks masks = new MoveMasks();
+        masks.compute(empty, TeamColor.WHITE, Bitboards.square(4, 0));
+
+        int e2 = Bitboards.square(4, 1);
+        assertEquals(Bitboards.bit(Bitboards.square(7, 3)), masks.getCheckers());
+        assertEquals(Bitboards.bit(e2), masks.getPinned());
+        assertEquals(AttackTables.line(Bitboards.square(4, 0), e2), masks.pinRay(e2));
+        // gefesselter Läufer kann das Schach nicht auflösen
+        assertEquals(0L, MoveGenerator.legalTargets(empty, masks, null, -1, e2));
+        assertFalse(MoveGenerator.legalTargets(empty, masks, null, -1, Bitboards.square(4, 0)) == 0L);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.chesspressoserver.models.gamemodels;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTest {
+
+    @Test
+    void factoriesReturnCanonicalInstance() {
+        Position e4 = Position.of(4, 3);
+        assertSame(e4, Position.of("E4"));
+        assertSame(e4, Position.of("e4"));
+        assertSame(e4, Position.of(28));
+        assertEquals("E4", e4.getPos());
+        assertEquals(28, e4.getSquare());
+    }
+
+    @Test
+    void hashCodeMatchesEquals() {
+        Set<Position> set = new HashSet<>();
+        set.add(new Position(4, 3));
+        assertTrue(set.contains(Position.of("E4")));
+        assertEquals(new Position("E4").hashCode(), Position.of(4, 3).hashCode());
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Position.of(8, 0));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(64));
+        assertThrows(IllegalArgumentException.class, () -> Position.of("I1"));
+        assertThrows(IllegalArgumentException.class, () -> Position.of("A9"));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.chesspressoserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BroadcastServiceTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private BroadcastService broadcastService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        when(messagingTemplate.getUserDestinationPrefix()).thenReturn("/user/");
+        broadcastService = spy(new BroadcastService(messagingTemplate, new ObjectMapper()));
+    }
+
+    @Test
+    void prepareSerializesToJson() {
+        Message<byte[]> frame = broadcastService.prepare(Map.of("type", "ping"));
+
+        assertThat(new String(frame.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"type\":\"ping\"}");
+        assertThat(frame.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Test
+    void sendToUsersSerializesOnce() {
+        broadcastService.sendToUsers(List.of("p1", "p2", "p3"), "/queue/lobby-update", Map.of("type", "LOBBY_UPDATE"));
+
+        verify(broadcastService, times(1)).prepare(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> frames = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(3)).send(anyString(), frames.capture());
+        assertThat(frames.getAllValues()).allSatisfy(frame -> assertThat(frame).isSameAs(frames.getValue()));
+        verify(messagingTemplate).send(eq("/user/p2/queue/lobby-update"), any());
+    }
+
+    @Test
+    void staticFramesAreCached() {
+        Map<String, Object> heartbeat = Map.of("type", "status-update");
+
+        broadcastService.broadcastStatic("/topic/players", heartbeat);
+        broadcastService.broadcastStatic("/topic/players", heartbeat);
+
+        verify(broadcastService, times(1)).prepare(heartbeat);
+        verify(messagingTemplate, times(2)).send(eq("/topic/players"), any());
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.chesspressoserver.service;
+
+import org.example.chesspressoserver.gamelogic.ChessClock;
+import org.example.chesspressoserver.gamelogic.GameController;
+import org.example.chesspressoserver.gamelogic.GameExecutor;
+import org.example.chesspressoserver.gamelogic.GameManager;
+import org.example.chesspressoserver.models.GameTime;
+import org.example.chesspressoserver.models.gamemodels.TeamColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClockServiceTest {
+
+    @Mock
+    private GameManager gameManager;
+
+    @Mock
+    private FlagFallHandler flagFallHandler;
+
+    private TimerService timerService;
+    private ClockService clockService;
+
+    @BeforeEach
+    void setUp() {
+        timerService = new TimerService(2, 64);
+        timerService.start();
+        clockService = new ClockService(timerService, new GameExecutor(Runnable::run), gameManager);
+        clockService.setFlagFallHandler(flagFallHandler);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        timerService.stop();
+    }
+
+    @Test
+    void flagFallEndsGameForSideToMove() {
+        GameController game = new GameController();
+        ChessClock clock = new ChessClock(TimeUnit.MILLISECONDS.toNanos(50));
+        clock.start(TeamColor.WHITE, System.nanoTime());
+        game.setClock(clock);
+        when(gameManager.getGameByLobby("LOBBY1")).thenReturn(game);
+
+        clockService.onMoveApplied("LOBBY1", game);
+
+        verify(flagFallHandler, timeout(2000)).onFlagFall("LOBBY1", TeamColor.WHITE);
+        assertThat(clock.getRunningSide()).isNull();
+        assertThat(clockService.getRunningClockCount()).isZero();
+    }
+
+    @Test
+    void stoppedClockDoesNotFlag() {
+        GameController game = new GameController();
+        ChessClock clock = new ChessClock(TimeUnit.MILLISECONDS.toNanos(50));
+        clock.start(TeamColor.WHITE, System.nanoTime());
+        game.setClock(clock);
+        when(gameManager.getGameByLobby("LOBBY1")).thenReturn(game);
+
+        clockService.onMoveApplied("LOBBY1", game);
+        clockService.stopClock("LOBBY1");
+
+        verify(flagFallHandler, after(200).never()).onFlagFall(anyString(), any());
+        assertThat(clock.getRunningSide()).isNull();
+        assertThat(clockService.getRunningClockCount()).isZero();
+    }
+
+    @Test
+    void unlimitedGamesHaveNoClock() {
+        GameController game = new GameController();
+        when(gameManager.getGameByLobby("LOBBY1")).thenReturn(game);
+
+        clockService.startClock("LOBBY1", GameTime.UNLIMITED);
+
+        assertThat(game.getClock()).isNull();
+        assertThat(clockService.getRunningClockCount()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.chesspressoserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MovePersistenceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MovePersistenceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MovePersistenceService(jdbcTemplate, 100, 10, 200, 50, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void movesAreWrittenAsOneBatch() {
+        UUID gameId = UUID.randomUUID();
+        service.enqueue(gameId, 1, "♙: e2 -> e4");
+        service.enqueue(gameId, 2, "♟: e7 -> e5");
+        service.enqueue(gameId, 3, "♘: g1 -> f3");
+
+        service.start();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(MovePersistenceService.INSERT_SQL), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0)[1]).isEqualTo(gameId);
+        assertThat(rows).extracting(row -> row[2]).containsExactly(1, 2, 3);
+        assertThat(rows.get(2)[3]).isEqualTo("♘: g1 -> f3");
+    }
+
+    @Test
+    void stopFlushesPendingMoves() throws InterruptedException {
+        service.start();
+        service.enqueue(UUID.randomUUID(), 1, "♙: e2 -> e4");
+
+        service.stop();
+
+        assertThat(service.getPendingCount()).isZero();
+        verify(jdbcTemplate).batchUpdate(eq(MovePersistenceService.INSERT_SQL), any(List.class));
+    }
+
+    @Test
+    void movesWithoutGameIdAreIgnored() {
+        service.enqueue(null, 1, "♙: e2 -> e4");
+
+        assertThat(service.getPendingCount()).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void fullQueueDropsToOverflowLogWithoutTouchingTheDatabase() {
+        MovePersistenceService small = new MovePersistenceService(jdbcTemplate, 1, 10, 200, 5, 2, 1);
+        UUID gameId = UUID.randomUUID();
+
+        small.enqueue(gameId, 1, "♙: e2 -> e4");
+        small.enqueue(gameId, 2, "♟: e7 -> e5");
+
+        assertThat(small.getPendingCount()).isEqualTo(1);
+        assertThat(small.getDroppedCount()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void transientFailureIsRetried() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(eq(MovePersistenceService.INSERT_SQL), anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenReturn(new int[]{1});
+        service.start();
+        service.enqueue(UUID.randomUUID(), 1, "♙: e2 -> e4");
+
+        service.stop();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(MovePersistenceService.INSERT_SQL), anyList());
+        verify(jdbcTemplate, never()).update(eq(MovePersistenceService.INSERT_SQL), any(Object[].class));
+    }
+
+    @Test
+    void rejectedBatchFallsBackToSingleRows() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(eq(MovePersistenceService.INSERT_SQL), anyList()))
+                .thenThrow(new DataIntegrityViolationException("move_notation too long"));
+        UUID gameId = UUID.randomUUID();
+        // Argumente sind expandiert: SQL, id, game_id, move_number, ...
+        when(jdbcTemplate.update(eq(MovePersistenceService.INSERT_SQL), any(Object[].class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(3).equals(2)) {
+                throw new DataIntegrityViolationException("move_notation too long");
+            }
+            return 1;
+        });
+        service.enqueue(gameId, 1, "♙: e2 -> e4");
+        service.enqueue(gameId, 2, "x".repeat(500));
+        service.enqueue(gameId, 3, "♘: g1 -> f3");
+
+        service.start();
+        service.stop();
+
+        // kein Retry bei nicht-transienten Fehlern, jede Zeile einzeln
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(MovePersistenceService.INSERT_SQL), anyList());
+        verify(jdbcTemplate, times(3)).update(eq(MovePersistenceService.INSERT_SQL), any(Object[].class));
+    }
+}
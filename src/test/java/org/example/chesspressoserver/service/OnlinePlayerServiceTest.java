@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class OnlinePlayerServiceTest {
@@ -26,7 +29,7 @@ class OnlinePlayerServiceTest {
 
         // Then
         assertThat(onlinePlayerService.isPlayerOnline("player1")).isTrue();
-        assertThat(onlinePlayerService.getOnlinePlayers()).contains("player1");
+        assertThat(onlinePlayerService.getOnlinePlayerCount()).isEqualTo(1);
     }
 
     @Test
@@ -36,7 +39,7 @@ class OnlinePlayerServiceTest {
 
         // Then
         assertThat(onlinePlayerService.isPlayerOnline("anonymous")).isFalse();
-        assertThat(onlinePlayerService.getOnlinePlayers()).doesNotContain("anonymous");
+        assertThat(onlinePlayerService.getOnlinePlayerCount()).isZero();
     }
 
     @Test
@@ -77,21 +80,20 @@ class OnlinePlayerServiceTest {
 
         // Then
         assertThat(onlinePlayerService.isPlayerOnline("player1")).isFalse();
-        assertThat(onlinePlayerService.getOnlinePlayers()).doesNotContain("player1");
+        assertThat(onlinePlayerService.getOnlinePlayerCount()).isZero();
     }
 
     @Test
-    void getOnlinePlayers_ShouldReturnMultipleOnlinePlayers() {
-        // Given
+    void updateHeartbeat_ShouldTrackMultipleOnlinePlayers() {
+        // When
         onlinePlayerService.updateHeartbeat("player1");
         onlinePlayerService.updateHeartbeat("player2");
         onlinePlayerService.updateHeartbeat("player3");
 
-        // When
-        Set<String> onlinePlayers = onlinePlayerService.getOnlinePlayers();
-
         // Then
-        assertThat(onlinePlayers).containsExactlyInAnyOrder("player1", "player2", "player3");
+        assertThat(onlinePlayerService.isPlayerOnline("player1")).isTrue();
+        assertThat(onlinePlayerService.isPlayerOnline("player2")).isTrue();
+        assertThat(onlinePlayerService.isPlayerOnline("player3")).isTrue();
         assertThat(onlinePlayerService.getOnlinePlayerCount()).isEqualTo(3);
     }
 
@@ -108,6 +110,113 @@ class OnlinePlayerServiceTest {
         assertThat(onlinePlayerService.isPlayerOnline("player1")).isTrue();
     }
 
+    @Test
+    void presenceListener_ShouldBeNotifiedOnJoinAndLeaveOnly() {
+        // Given
+        PresenceListener listener = mock(PresenceListener.class);
+        onlinePlayerService.setPresenceListener(listener);
+
+        // When
+        onlinePlayerService.updateHeartbeat("player1");
+        onlinePlayerService.updateHeartbeat("player1");
+        onlinePlayerService.removePlayer("player1");
+        onlinePlayerService.removePlayer("player1");
+
+        // Then
+        verify(listener).onPresenceChange("player1", true);
+        verify(listener).onPresenceChange("player1", false);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    void presenceListener_ShouldSeeFinalStateWhenRemoveRacesHeartbeat() throws InterruptedException {
+        // Given - während der Join gemeldet wird, trennt ein zweiter Thread denselben Spieler
+        Map<String, Boolean> reported = new ConcurrentHashMap<>();
+        Thread[] disconnect = new Thread[1];
+        onlinePlayerService.setPresenceListener((playerId, online) -> {
+            if (online && disconnect[0] == null) {
+                disconnect[0] = new Thread(() -> onlinePlayerService.removePlayer(playerId));
+                disconnect[0].start();
+                joinQuietly(disconnect[0], 200);
+            }
+            reported.put(playerId, online);
+        });
+
+        // When
+        onlinePlayerService.updateHeartbeat("player1");
+        disconnect[0].join();
+
+        // Then - die letzte Meldung entspricht dem tatsächlichen Zustand
+        assertThat(onlinePlayerService.isPlayerOnline("player1")).isFalse();
+        assertThat(reported).containsEntry("player1", false);
+        assertThat(onlinePlayerService.getOnlinePlayerCount()).isZero();
+    }
+
+    @Test
+    void cleanup_ShouldExpirePlayersAfterTimeout() {
+        // Given
+        AtomicLong now = new AtomicLong(1_000_000);
+        OnlinePlayerService service = new OnlinePlayerService(now::get);
+        PresenceListener listener = mock(PresenceListener.class);
+        service.setPresenceListener(listener);
+        service.updateHeartbeat("player1");
+        now.addAndGet(30_000);
+        service.updateHeartbeat("player2");
+
+        // When - player1 ist abgelaufen, player2 noch nicht
+        now.addAndGet(15_000);
+        service.cleanup();
+
+        // Then
+        assertThat(service.isPlayerOnline("player1")).isFalse();
+        assertThat(service.isPlayerOnline("player2")).isTrue();
+        assertThat(service.getOnlinePlayerCount()).isEqualTo(1);
+        verify(listener).onPresenceChange("player1", false);
+    }
+
+    @Test
+    void updateHeartbeat_ShouldMovePlayerToLaterDeadline() {
+        // Given
+        AtomicLong now = new AtomicLong(0);
+        OnlinePlayerService service = new OnlinePlayerService(now::get);
+        service.updateHeartbeat("player1");
+
+        // When - Heartbeat kurz vor Ablauf, danach der alte Ablaufzeitpunkt
+        now.addAndGet(40_000);
+        service.updateHeartbeat("player1");
+        now.addAndGet(10_000);
+        service.cleanup();
+
+        // Then
+        assertThat(service.isPlayerOnline("player1")).isTrue();
+        assertThat(service.getOnlinePlayerCount()).isEqualTo(1);
+
+        now.addAndGet(35_000);
+        service.cleanup();
+        assertThat(service.isPlayerOnline("player1")).isFalse();
+        assertThat(service.getOnlinePlayerCount()).isZero();
+    }
+
+    @Test
+    void cleanup_ShouldExpireEveryoneAfterLongPause() {
+        // Given - länger als eine Umdrehung des Rings kein cleanup()
+        AtomicLong now = new AtomicLong(500);
+        OnlinePlayerService service = new OnlinePlayerService(now::get);
+        for (int i = 0; i < 100; i++) {
+            service.updateHeartbeat("player" + i);
+            now.addAndGet(700);
+        }
+
+        // When
+        now.addAndGet(300_000);
+        service.cleanup();
+
+        // Then
+        assertThat(service.getOnlinePlayerCount()).isZero();
+        assertThat(service.isPlayerOnline("player0")).isFalse();
+        assertThat(service.isPlayerOnline("player99")).isFalse();
+    }
+
     @Test
     void getOnlinePlayerCount_ShouldReturnCorrectCount() {
         // Given
@@ -122,4 +231,12 @@ class OnlinePlayerServiceTest {
         onlinePlayerService.removePlayer("player1");
         assertThat(onlinePlayerService.getOnlinePlayerCount()).isEqualTo(1);
     }
+
+    private static void joinQuietly(Thread thread, long millis) {
+        try {
+            thread.join(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package org.example.chesspressoserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+
+    private BroadcastService broadcastService;
+    private OnlinePlayerService onlinePlayerService;
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        broadcastService = mock(BroadcastService.class);
+        onlinePlayerService = new OnlinePlayerService();
+        presenceService = new PresenceService(broadcastService, onlinePlayerService);
+    }
+
+    @Test
+    void joinsWithinWindowAreSentAsOneDiff() {
+        onlinePlayerService.updateHeartbeat("player1");
+        onlinePlayerService.updateHeartbeat("player2");
+        onlinePlayerService.updateHeartbeat("player1"); // nur Heartbeat, kein neuer Join
+
+        presenceService.flush();
+
+        Map<String, Object> diff = sentDiffs().get(0);
+        assertThat(diff).containsEntry("type", "presence-diff").containsEntry("version", 1L);
+        assertThat((List<?>) diff.get("joined")).containsExactly("player1", "player2");
+        assertThat((List<?>) diff.get("left")).isEmpty();
+    }
+
+    @Test
+    void joinAndLeaveInSameWindowCancelOut() {
+        onlinePlayerService.updateHeartbeat("player1");
+        onlinePlayerService.removePlayer("player1");
+
+        presenceService.flush();
+
+        verifyNoInteractions(broadcastService);
+        assertThat(presenceService.getVersion()).isZero();
+    }
+
+    @Test
+    void emptyWindowSendsNothing() {
+        presenceService.flush();
+
+        verifyNoInteractions(broadcastService);
+    }
+
+    @Test
+    void leaveIncrementsVersion() {
+        onlinePlayerService.updateHeartbeat("player1");
+        presenceService.flush();
+        onlinePlayerService.removePlayer("player1");
+        presenceService.flush();
+
+        List<Map<String, Object>> diffs = sentDiffs();
+        assertThat(diffs).hasSize(2);
+        assertThat(diffs.get(1)).containsEntry("version", 2L);
+        assertThat((List<?>) diffs.get(1).get("left")).containsExactly("player1");
+    }
+
+    @Test
+    void snapshotMatchesPublishedVersion() {
+        onlinePlayerService.updateHeartbeat("player1");
+        onlinePlayerService.updateHeartbeat("player2");
+        presenceService.flush();
+        // noch nicht geflusht: gehört noch nicht zum Snapshot
+        onlinePlayerService.updateHeartbeat("player3");
+
+        Map<String, Object> snapshot = presenceService.snapshot();
+
+        assertThat(snapshot).containsEntry("type", "presence-snapshot")
+                .containsEntry("version", 1L)
+                .containsEntry("playerCount", 2);
+        assertThat((List<?>) snapshot.get("onlinePlayers")).containsExactlyInAnyOrder("player1", "player2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> sentDiffs() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(broadcastService, atLeastOnce()).broadcast(eq(PresenceService.TOPIC), captor.capture());
+        return captor.getAllValues().stream().map(diff -> (Map<String, Object>) diff).toList();
+    }
+}
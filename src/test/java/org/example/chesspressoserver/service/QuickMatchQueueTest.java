@@ -0,0 +1,114 @@
+package org.example.chesspressoserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuickMatchQueueTest {
+
+    private final QuickMatchQueue queue = new QuickMatchQueue();
+
+    @Test
+    void firstPlayerWaitsSecondIsPaired() {
+        QuickMatchQueue.Ticket first = queue.pairOrWait("p1", () -> ticket("p1"));
+        QuickMatchQueue.Ticket second = queue.pairOrWait("p2", () -> ticket("p2"));
+
+        assertThat(first.playerId()).isEqualTo("p1");
+        assertThat(second).isSameAs(first);
+        assertThat(queue.peek()).isNull();
+    }
+
+    @Test
+    void secondPlayerDoesNotCreateOwnTicket() {
+        queue.pairOrWait("p1", () -> ticket("p1"));
+        AtomicInteger created = new AtomicInteger();
+
+        queue.pairOrWait("p2", () -> {
+            created.incrementAndGet();
+            return ticket("p2");
+        });
+
+        assertThat(created).hasValue(0);
+    }
+
+    @Test
+    void joiningTwiceKeepsTheWaitingTicket() {
+        QuickMatchQueue.Ticket first = queue.pairOrWait("p1", () -> ticket("p1"));
+
+        QuickMatchQueue.Ticket again = queue.pairOrWait("p1", () -> ticket("p1"));
+
+        assertThat(again).isSameAs(first);
+        assertThat(queue.peek()).isSameAs(first);
+    }
+
+    @Test
+    void cancelledTicketIsNotPaired() {
+        queue.pairOrWait("p1", () -> ticket("p1"));
+
+        assertThat(queue.cancel("lobby-p1")).isTrue();
+        QuickMatchQueue.Ticket result = queue.pairOrWait("p2", () -> ticket("p2"));
+
+        assertThat(result.playerId()).isEqualTo("p2");
+        assertThat(queue.cancel("lobby-p1")).isFalse();
+    }
+
+    @Test
+    void concurrentJoinsPairEveryPlayerExactlyOnce() throws Exception {
+        int threads = 64;
+        int playersPerThread = 2_000;
+        // Gegner -> Spieler, der ihn übernommen hat
+        Map<String, String> pairs = new ConcurrentHashMap<>();
+        Set<String> waited = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < playersPerThread; i++) {
+                        String playerId = thread + "-" + i;
+                        QuickMatchQueue.Ticket result = queue.pairOrWait(playerId, () -> ticket(playerId));
+                        if (result.playerId().equals(playerId)) {
+                            waited.add(playerId);
+                        } else {
+                            assertThat(pairs.putIfAbsent(result.playerId(), playerId)).isNull();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = threads * playersPerThread;
+        // jeder wartende Spieler wurde genau einmal übernommen; bei gerader Anzahl wartet am Ende niemand
+        assertThat(waited).hasSize(total / 2);
+        assertThat(pairs).hasSize(total / 2);
+        assertThat(waited).containsAll(pairs.keySet());
+        assertThat(pairs.keySet()).doesNotContainAnyElementsOf(pairs.values());
+        assertThat(queue.peek()).isNull();
+    }
+
+    private static QuickMatchQueue.Ticket ticket(String playerId) {
+        return new QuickMatchQueue.Ticket(playerId, "lobby-" + playerId);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.chesspressoserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerServiceTest {
+
+    private TimerService timerService;
+
+    @BeforeEach
+    void setUp() {
+        // kleines Rad, damit Timer über mehrere Umdrehungen laufen
+        timerService = new TimerService(2, 8);
+        timerService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        timerService.stop();
+    }
+
+    @Test
+    void timerFiresNotBeforeItsDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicLong firedAfter = new AtomicLong();
+        long start = System.nanoTime();
+
+        TimerService.Timeout timeout = timerService.schedule(() -> {
+            firedAfter.set(System.nanoTime() - start);
+            fired.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAfter.get()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timerService.getPendingCount()).isZero();
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() throws InterruptedException {
+        AtomicBoolean fired = new AtomicBoolean();
+        TimerService.Timeout timeout = timerService.schedule(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        Thread.sleep(150);
+
+        assertThat(fired).isFalse();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timerService.getPendingCount()).isZero();
+    }
+
+    @Test
+    void manyTimersAllFire() throws InterruptedException {
+        int count = 10_000;
+        CountDownLatch fired = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            timerService.schedule(fired::countDown, i % 200, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}